@@ -0,0 +1,66 @@
+package study.data_jpa.benchmark;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.auditing.AuditingHandler;
+import org.springframework.data.domain.AuditorAware;
+import study.data_jpa.entity.AuditingFieldsListener;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberBulkWriter;
+
+// 감사 필드 채우기 비용
+// - springAuditingHandler: AuditingEntityListener가 엔티티마다 호출하던 경로(메타데이터 + 리플렉션)
+// - auditingFieldsListener: 직접 메서드 호출
+// - bulkInsert: 리스너가 끼어든 상태의 1,000건 배치 insert
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AuditingBenchmark {
+
+    ConfigurableApplicationContext context;
+    AuditingHandler auditingHandler;
+    AuditingFieldsListener listener;
+    MemberBulkWriter bulkWriter;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = BenchmarkContext.start("auditing");
+        auditingHandler = context.getBean(AuditingHandler.class);
+        listener = new AuditingFieldsListener(context.getBean(AuditorAware.class), context.getBean(Clock.class));
+        bulkWriter = context.getBean(MemberBulkWriter.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Member springAuditingHandler() {
+        return auditingHandler.markCreated(new Member("member", 10));
+    }
+
+    @Benchmark
+    public Member auditingFieldsListener() {
+        Member member = new Member("member", 10);
+        listener.touchForCreate(member);
+        return member;
+    }
+
+    @Benchmark
+    public long bulkInsert() {
+        return bulkWriter.saveAll(IntStream.range(0, 1000).mapToObj(i -> new Member("member" + i, i % 100)));
+    }
+}
@@ -0,0 +1,57 @@
+package study.data_jpa.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.data_jpa.DataJpaApplication;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberBulkWriter;
+import study.data_jpa.repository.TeamRepository;
+
+// 벤치마크마다 임베디드 H2 메모리 DB로 스프링 컨텍스트를 띄운다.
+// SQL 로그, p6spy, 2차 캐시는 측정값을 흐리므로 끈다.
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    // extraArgs에 같은 키가 있으면 기본값 대신 사용한다. (ex: "--spring.jpa.properties.hibernate.cache.use_second_level_cache=true")
+    static ConfigurableApplicationContext start(String name, String... extraArgs) {
+        Map<String, String> args = new LinkedHashMap<>();
+        Stream.concat(Stream.of(
+                        "--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=warn",
+                        "--logging.level.org.hibernate.SQL=warn",
+                        "--decorator.datasource.enabled=false",
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false"),
+                Stream.of(extraArgs))
+                .forEach(arg -> args.put(arg.substring(0, arg.indexOf('=')), arg));
+
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args.values().toArray(String[]::new));
+    }
+
+    // teamCount 개의 팀에 membersPerTeam 명씩 회원을 넣는다. username = "member{n}", age = n % 100
+    static void seed(ConfigurableApplicationContext context, int teamCount, int membersPerTeam) {
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        List<Team> teams = teamRepository.saveAll(
+                IntStream.range(0, teamCount).mapToObj(i -> new Team("team" + i)).toList());
+
+        context.getBean(MemberBulkWriter.class).saveAll(
+                IntStream.range(0, teamCount * membersPerTeam).mapToObj(i -> {
+                    Member member = new Member("member" + i, i % 100);
+                    member.setTeam(teams.get(i % teamCount));
+                    return member;
+                }));
+    }
+}
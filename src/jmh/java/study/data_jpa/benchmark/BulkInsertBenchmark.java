@@ -0,0 +1,58 @@
+package study.data_jpa.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberBulkWriter;
+import study.data_jpa.repository.MemberRepository;
+
+// 회원 10,000명 저장 처리량 (결과 단위: rows/s)
+// - jpaRepositorySaveAll: 영속성 컨텍스트에 계속 쌓임
+// - bulkWriterSaveAll: batch_size마다 flush/clear
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BulkInsertBenchmark {
+
+    static final int COUNT = 10_000;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberBulkWriter memberBulkWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("bulkInsert");
+        memberRepository = context.getBean(MemberRepository.class);
+        memberBulkWriter = context.getBean(MemberBulkWriter.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public List<Member> jpaRepositorySaveAll() {
+        return memberRepository.saveAll(IntStream.range(0, COUNT).mapToObj(i -> new Member("saveAll" + i, i % 100)).toList());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public long bulkWriterSaveAll() {
+        return memberBulkWriter.saveAll(IntStream.range(0, COUNT).mapToObj(i -> new Member("bulkWriter" + i, i % 100)));
+    }
+}
@@ -0,0 +1,46 @@
+package study.data_jpa.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.repository.MemberRepository;
+
+// 회원 10,000명 중 절반(age >= 50)을 한 문장으로 수정하는 비용
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BulkUpdateBenchmark {
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    TransactionTemplate tx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("bulk");
+        BenchmarkContext.seed(context, 100, 100);
+        memberRepository = context.getBean(MemberRepository.class);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 50 미만은 그대로, 50 이상은 계속 50 이상이므로 매 호출마다 수정되는 행 수는 5,000건으로 일정하다.
+    @Benchmark
+    public int bulkUpdate() {
+        return tx.execute(status -> memberRepository.bulkUpdate(50));
+    }
+}
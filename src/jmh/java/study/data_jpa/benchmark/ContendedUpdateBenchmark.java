@@ -0,0 +1,66 @@
+package study.data_jpa.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.OptimisticLockRetryExecutor;
+
+// 8개 스레드가 회원 한 명의 나이를 1씩 올리는 처리량 비교 (결과 단위: 증가 횟수/s)
+// - optimisticRetry: @Version 충돌 시 OptimisticLockRetryExecutor가 새 트랜잭션으로 재시도 (백오프 포함)
+// - pessimisticWrite: select ... for update(PESSIMISTIC_WRITE)로 순서대로 대기
+// 한 행에 경쟁이 몰리는 최악의 경우라 재시도 횟수를 넉넉히 준다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class ContendedUpdateBenchmark {
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    OptimisticLockRetryExecutor retryExecutor;
+    TransactionTemplate tx;
+    Long id;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("contendedUpdate", "--optimistic-lock.retry.max-attempts=1000");
+        memberRepository = context.getBean(MemberRepository.class);
+        retryExecutor = context.getBean(OptimisticLockRetryExecutor.class);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        id = memberRepository.save(new Member("contended", 0)).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void optimisticRetry() {
+        retryExecutor.run("benchmark", () -> {
+            Member member = memberRepository.findById(id).get();
+            member.setAge(member.getAge() + 1);
+        });
+    }
+
+    @Benchmark
+    public void pessimisticWrite() {
+        tx.executeWithoutResult(status -> {
+            Member member = memberRepository.findWithLockById(id).get();
+            member.setAge(member.getAge() + 1);
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package study.data_jpa.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+// 회원 1,000명(팀 100개)을 읽고 member.getTeam().getName()까지 접근하는 비용 비교
+// - lazyLoadingBatchFetch: 지연 로딩. Team의 @BatchSize(100) 때문에 N+1이 아니라 팀 100개를 in 쿼리 한 번으로 초기화한다. (1 + 1)
+//   @BatchSize는 엔티티에 붙어 있어 default_batch_fetch_size 설정으로 끌 수 없으므로 팀마다 쿼리하는 경우는 측정하지 않는다.
+// - fetchJoin / entityGraph / namedEntityGraph: 한 번의 join 쿼리
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FetchStrategyBenchmark {
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    TransactionTemplate readOnlyTx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("fetch");
+        BenchmarkContext.seed(context, 100, 10);
+        memberRepository = context.getBean(MemberRepository.class);
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void lazyLoadingBatchFetch(Blackhole bh) {
+        readOnlyTx.executeWithoutResult(status -> consume(memberRepository.findMemberCustom(), bh));
+    }
+
+    @Benchmark
+    public void fetchJoin(Blackhole bh) {
+        readOnlyTx.executeWithoutResult(status -> consume(memberRepository.findMemberFetchJoin(), bh));
+    }
+
+    @Benchmark
+    public void entityGraph(Blackhole bh) {
+        readOnlyTx.executeWithoutResult(status -> consume(memberRepository.findMemberEntityGraph(), bh));
+    }
+
+    @Benchmark
+    public void namedEntityGraph(Blackhole bh) {
+        readOnlyTx.executeWithoutResult(status -> consume(memberRepository.findNamedEntityGraph(), bh));
+    }
+
+    private static void consume(List<Member> members, Blackhole bh) {
+        for (Member member : members) {
+            bh.consume(member.getTeam().getName());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package study.data_jpa.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+// 회원 210,000명에서 page 번째 페이지(20건)를 읽는 비용 (page 10,000 = 앞의 200,000건을 건너뜀)
+// - offsetPage: Page + count 쿼리
+// - offsetSlice: count 없이 size + 1
+// - keyset: (username, id) 이후 20건. page와 상관없이 일정해야 한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PagingBenchmark {
+
+    static final int SIZE = 20;
+
+    @Param({"0", "100", "4000", "10000"})
+    int page;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    PageRequest pageRequest;
+    KeysetScrollPosition position;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("paging");
+        BenchmarkContext.seed(context, 100, 2_100);
+        memberRepository = context.getBean(MemberRepository.class);
+        pageRequest = PageRequest.of(page, SIZE, Sort.by("username", "id"));
+
+        // keyset 은 같은 위치를 가리키도록 직전 페이지 마지막 회원을 cursor로 사용
+        position = ScrollPosition.keyset();
+        if (page > 0) {
+            Member last = memberRepository.findSliceBy(PageRequest.of(page - 1, SIZE, Sort.by("username", "id")))
+                    .getContent().get(SIZE - 1);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("username", last.getUsername());
+            keys.put("id", last.getId());
+            position = ScrollPosition.forward(keys);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void offsetPage(Blackhole bh) {
+        bh.consume(memberRepository.findAll(pageRequest));
+    }
+
+    @Benchmark
+    public void offsetSlice(Blackhole bh) {
+        bh.consume(memberRepository.findSliceBy(pageRequest));
+    }
+
+    @Benchmark
+    public void keyset(Blackhole bh) {
+        bh.consume(memberRepository.findMembersAfter(position, SIZE));
+    }
+}
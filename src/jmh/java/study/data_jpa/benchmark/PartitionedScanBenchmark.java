@@ -0,0 +1,60 @@
+package study.data_jpa.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.data_jpa.repository.MemberPartitionedScanner;
+
+// 회원 1,000,000명 전체를 MemberDto로 읽는 처리량 (구간 수 1, 4, 8, 16별, 초당 행 수)
+// ./gradlew jmh -> build/results/jmh/results.json 의 PartitionedScanBenchmark.scan (partitions별 score)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(PartitionedScanBenchmark.MEMBERS)
+public class PartitionedScanBenchmark {
+
+    static final int MEMBERS = 1_000_000;
+    static final int TEAMS = 100;
+
+    @Param({"1", "4", "8", "16"})
+    int partitions;
+
+    ConfigurableApplicationContext context;
+    MemberPartitionedScanner scanner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("partitionedScan");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into team (team_id, name, version, member_count)" +
+                " select x, concat('team', x), 0, 0 from system_range(1, ?)", TEAMS);
+        jdbcTemplate.update("insert into member (member_id, username, age, version, fk_team_id)" +
+                " select x, concat('member', x), mod(x, 100), 0, mod(x, ?) + 1 from system_range(1, ?)", TEAMS, MEMBERS);
+        scanner = context.getBean(MemberPartitionedScanner.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 행마다 username 길이를 더한다. (여러 스레드에서 호출되므로 LongAdder)
+    @Benchmark
+    public long scan() {
+        LongAdder sum = new LongAdder();
+        scanner.forEach(partitions, dto -> sum.add(dto.getUsername().length()));
+        return sum.sum();
+    }
+}
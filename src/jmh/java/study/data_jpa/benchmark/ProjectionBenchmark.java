@@ -0,0 +1,89 @@
+package study.data_jpa.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.NestedClosedProjection;
+import study.data_jpa.repository.UserNameOnly;
+import study.data_jpa.repository.UsernameOnlyDto;
+
+// 엔티티 조회 vs 각 Projection 방식. username은 중복되지 않으므로 findByUsername 계열은 1건 조회,
+// findMemberDto는 전체(1,000건) DTO 조회이다.
+// - closedAndOpenInterface, nestedClosedInterface: Spring Data projection (엔티티 전체 조회 후 프록시)
+// - dynamic*: ProjectionMapperRegistry (SpEL이 참조한 컬럼만 / team left join 후 name만 조회)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProjectionBenchmark {
+
+    static final String USERNAME = "member500";
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("projection");
+        BenchmarkContext.seed(context, 100, 10);
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void entity(Blackhole bh) {
+        bh.consume(memberRepository.findListByUsername(USERNAME));
+    }
+
+    @Benchmark
+    public void closedAndOpenInterface(Blackhole bh) {
+        memberRepository.findProjectionByUsername(USERNAME).forEach(p -> bh.consume(p.getUsernameAndAge()));
+    }
+
+    @Benchmark
+    public void classDto(Blackhole bh) {
+        memberRepository.findProjectionDtoByUsername(USERNAME).forEach(p -> bh.consume(p.getUsername()));
+    }
+
+    @Benchmark
+    public void dynamicClassDto(Blackhole bh) {
+        memberRepository.findDynamicProjectByUsername(USERNAME, UsernameOnlyDto.class)
+                .forEach(p -> bh.consume(p.getUsername()));
+    }
+
+    @Benchmark
+    public void nestedClosedInterface(Blackhole bh) {
+        memberRepository.findNestedClosedProjectionByUsername(USERNAME)
+                .forEach(p -> bh.consume(p.getTeam().getName()));
+    }
+
+    @Benchmark
+    public void dynamicOpenInterface(Blackhole bh) {
+        memberRepository.findDynamicProjectByUsername(USERNAME, UserNameOnly.class)
+                .forEach(p -> bh.consume(p.getUsernameAndAge()));
+    }
+
+    @Benchmark
+    public void dynamicNestedClosedInterface(Blackhole bh) {
+        memberRepository.findDynamicProjectByUsername(USERNAME, NestedClosedProjection.class)
+                .forEach(p -> bh.consume(p.getTeam().getName()));
+    }
+
+    @Benchmark
+    public void constructorDtoQuery(Blackhole bh) {
+        bh.consume(memberRepository.findMemberDto());
+    }
+}
@@ -0,0 +1,74 @@
+package study.data_jpa.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberBulkWriter;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.UserNameOnly;
+import study.data_jpa.repository.UsernameOnlyDto;
+
+// 같은 username을 가진 회원 1,000명을 projection으로 조회할 때의 처리량/할당량 비교
+// gc.alloc.rate.norm / ROWS = row 당 할당 바이트
+// - springData*: Spring Data projection 쿼리 메서드 (프록시, 리플렉션)
+//   findProjectionDtoByUsername(DTO), findProjectionByUsername(SpEL 인터페이스, 엔티티 조회 후 프록시)
+// - precompiled*: findDynamicProjectByUsername -> ProjectionMapperRegistry (생성된 클래스, MethodHandle)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProjectionMappingBenchmark {
+
+    static final int ROWS = 1_000;
+    static final String USERNAME = "same";
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("projectionMapping");
+        context.getBean(MemberBulkWriter.class)
+                .saveAll(IntStream.range(0, ROWS).mapToObj(i -> new Member(USERNAME, i % 100)));
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void springDataClassDto(Blackhole bh) {
+        memberRepository.findProjectionDtoByUsername(USERNAME)
+                .forEach(p -> bh.consume(p.getUsername()));
+    }
+
+    @Benchmark
+    public void precompiledClassDto(Blackhole bh) {
+        memberRepository.findDynamicProjectByUsername(USERNAME, UsernameOnlyDto.class)
+                .forEach(p -> bh.consume(p.getUsername()));
+    }
+
+    @Benchmark
+    public void springDataInterface(Blackhole bh) {
+        memberRepository.findProjectionByUsername(USERNAME)
+                .forEach(p -> bh.consume(p.getUsernameAndAge()));
+    }
+
+    @Benchmark
+    public void precompiledInterface(Blackhole bh) {
+        memberRepository.findDynamicProjectByUsername(USERNAME, UserNameOnly.class)
+                .forEach(p -> bh.consume(p.getUsernameAndAge()));
+    }
+}
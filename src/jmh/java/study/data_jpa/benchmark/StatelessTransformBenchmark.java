@@ -0,0 +1,113 @@
+package study.data_jpa.benchmark;
+
+import jakarta.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.jpa.HibernateHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberStatelessRepository;
+
+// 회원 전체(기본 5,000,000명)의 age를 1씩 올리는 변환 (읽기 -> 수정 -> update)
+// - stateful: EntityManager 커서 + dirty checking, batch_size마다 flush/clear (메모리를 일정하게 유지하는 최선의 stateful 방식)
+// - stateless: MemberStatelessRepository.transform (영속성 컨텍스트, 스냅샷 없음)
+// 메모리는 두 가지로 비교한다.
+// - 할당량: gc 프로파일러(build.gradle profilers = ['gc'], 또는 -prof gc)의 gc.alloc.rate.norm (호출당 할당 바이트)
+// - 최대 힙 사용량: 반복(iteration)마다 힙 풀의 peak를 초기화하고 끝날 때 "peak heap" 으로 출력한다.
+// 처리량은 SingleShotTime(호출 한 번 = 전체 변환)의 시간으로 비교한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class StatelessTransformBenchmark {
+
+    static final int BATCH_SIZE = 100;
+
+    @Param({"5000000"})
+    int members;
+
+    ConfigurableApplicationContext context;
+    EntityManager em;
+    TransactionTemplate tx;
+    MemberStatelessRepository memberStatelessRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("statelessTransform");
+        context.getBean(JdbcTemplate.class).update(
+                "insert into member (member_id, username, age, version)" +
+                        " select x, concat('member', x), mod(x, 100), 0 from system_range(1, ?)", members);
+        em = context.getBean(EntityManager.class);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        memberStatelessRepository = context.getBean(MemberStatelessRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 이전 반복에서 남은 객체가 peak에 섞이지 않도록 GC 후 초기화한다.
+    @Setup(Level.Iteration)
+    public void resetPeakHeap() {
+        System.gc();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportPeakHeap() {
+        long peak = heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        System.out.printf("peak heap: %d MB%n", peak / (1024 * 1024));
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+    }
+
+    @Benchmark
+    public long stateful() {
+        return tx.execute(status -> {
+            long count = 0;
+            Iterator<Member> iterator = em.createQuery("select m from Member m order by m.id", Member.class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                    .getResultStream()
+                    .iterator();
+            while (iterator.hasNext()) {
+                Member member = iterator.next();
+                member.setAge(member.getAge() + 1);
+                if (++count % BATCH_SIZE == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            em.flush();
+            em.clear();
+            return count;
+        });
+    }
+
+    @Benchmark
+    public long stateless() {
+        return memberStatelessRepository.transform(member -> member.setAge(member.getAge() + 1));
+    }
+}
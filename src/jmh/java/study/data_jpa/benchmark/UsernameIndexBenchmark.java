@@ -0,0 +1,67 @@
+package study.data_jpa.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+// 회원 1,000만 명 중 자주 조회되는 username 1,000개를 반복 조회
+// - usernameIndex=false: idx_member_username_id 인덱스 탐색 (매번 DB, 쿼리 캐시는 끔)
+// - usernameIndex=true: MemberUsernameIndex + Member 2차 캐시 (캐시가 데워진 뒤에는 DB를 거치지 않음)
+// 1,000만 건은 JPA로 넣기에는 오래 걸리므로 H2 system_range로 직접 넣는다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class UsernameIndexBenchmark {
+
+    static final int HOT_USERNAMES = 1000;
+
+    @Param({"10000000"})
+    int members;
+
+    @Param({"false", "true"})
+    boolean usernameIndex;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("usernameIndex",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+                "--member.username-index.enabled=" + usernameIndex);
+        context.getBean(JdbcTemplate.class).update(
+                "insert into member (member_id, username, age, version)" +
+                        " select x, concat('member', x), mod(x, 100), 0 from system_range(1, ?)", members);
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> findByUsername() {
+        return memberRepository.findByUsername(hotUsername());
+    }
+
+    private String hotUsername() {
+        return "member" + (1 + ThreadLocalRandom.current().nextInt(HOT_USERNAMES) * (members / HOT_USERNAMES));
+    }
+}
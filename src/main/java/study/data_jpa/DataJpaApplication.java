@@ -1,14 +1,21 @@
 package study.data_jpa;
 
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.UUID;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import study.data_jpa.config.RequestCachedAuditorAware;
 
-@EnableJpaAuditing
+@EnableAsync // spring.threads.virtual.enabled=true (vthreads 프로파일) 이면 @Async도 가상 스레드에서 실행된다.
+@EnableScheduling // ReplicaLagMonitor, TeamMemberCountReconciler
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
 @SpringBootApplication
 public class DataJpaApplication {
 
@@ -19,7 +26,18 @@ public class DataJpaApplication {
 	// AuditorAware 인터페이스의 getCurrentAuditor() 메서드를 오버라이딩하여 사용자 정보를 인터셉트하여 등록자, 수정자 정보를 등록할 수 있다.
 	@Bean
 	public AuditorAware<String> auditorProvider() {
-		return () -> Optional.of(UUID.randomUUID().toString());
+		return new RequestCachedAuditorAware();
+	}
+
+	// 감사 시간 기준. 테스트에서는 Clock.fixed(...) 빈으로 교체할 수 있다.
+	@Bean
+	public Clock clock() {
+		return Clock.systemDefaultZone();
+	}
+
+	@Bean
+	public DateTimeProvider auditingDateTimeProvider(Clock clock) {
+		return () -> Optional.of(LocalDateTime.now(clock));
 	}
 
 }
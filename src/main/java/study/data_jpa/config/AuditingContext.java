@@ -0,0 +1,25 @@
+package study.data_jpa.config;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+
+// 엔티티 리스너를 거치지 않는 벌크 수정(JPQL, 네이티브 SQL)에서 감사 컬럼 값을 채울 때 사용한다.
+// AuditingFieldsListener와 같은 AuditorAware, Clock을 쓰므로 값의 기준이 같다.
+@Component
+@RequiredArgsConstructor
+public class AuditingContext {
+
+    private final AuditorAware<String> auditorAware;
+    private final Clock clock;
+
+    public String getCurrentAuditor() {
+        return auditorAware.getCurrentAuditor().orElse(null);
+    }
+
+    public LocalDateTime getCurrentDateTime() {
+        return LocalDateTime.now(clock);
+    }
+}
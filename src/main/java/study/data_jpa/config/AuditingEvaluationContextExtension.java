@@ -0,0 +1,25 @@
+package study.data_jpa.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.spel.spi.EvaluationContextExtension;
+import org.springframework.stereotype.Component;
+
+// @Query의 SpEL 파라미터에서 감사 값을 쓸 수 있게 한다. (AuditingQueryMethodFactory가 @Modifying update에 자동으로 추가)
+// ex) @Query("update Member m set ..., m.lastModifiedDate = :#{currentDateTime}, m.lastModifiedBy = :#{currentAuditor} ...")
+// 루트 객체의 getter는 쿼리가 실행될 때마다 평가되므로 매번 현재 시각/사용자가 바인딩된다.
+@Component
+@RequiredArgsConstructor
+public class AuditingEvaluationContextExtension implements EvaluationContextExtension {
+
+    private final AuditingContext auditingContext;
+
+    @Override
+    public String getExtensionId() {
+        return "auditing";
+    }
+
+    @Override
+    public AuditingContext getRootObject() {
+        return auditingContext;
+    }
+}
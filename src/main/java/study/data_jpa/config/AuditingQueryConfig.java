@@ -0,0 +1,25 @@
+package study.data_jpa.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+
+@Configuration
+public class AuditingQueryConfig {
+
+    // 모든 JPA 리포지토리가 AuditingQueryMethodFactory로 쿼리 메서드를 만들게 한다. (@Modifying update에 감사 컬럼 추가)
+    @Bean
+    public static BeanPostProcessor auditingQueryMethodFactoryPostProcessor() {
+        AuditingQueryMethodFactory queryMethodFactory = new AuditingQueryMethodFactory();
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof JpaRepositoryFactoryBean<?, ?, ?> factoryBean) {
+                    factoryBean.setQueryMethodFactory(queryMethodFactory);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package study.data_jpa.config;
+
+import jakarta.persistence.Entity;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.annotation.LastModifiedBy;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.provider.PersistenceProvider;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.query.JpaQueryMethod;
+import org.springframework.data.jpa.repository.query.JpaQueryMethodFactory;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ReflectionUtils;
+
+// @Modifying JPQL update에 감사 컬럼 수정을 자동으로 붙인다.
+// ex) update Member m set m.age = m.age + 1 where m.age >= :age
+//  -> update Member m set m.age = m.age + 1, m.lastModifiedDate = :#{currentDateTime}, m.lastModifiedBy = :#{currentAuditor} where ...
+// - 값은 AuditingEvaluationContextExtension의 SpEL 파라미터로 바인딩되므로 SQL 문자열은 요청마다 달라지지 않는다.
+// - 리포지토리 생성 시점에 @Query 문자열을 한 번 바꾸므로 실행 시 비용이 없다.
+// - 대상 엔티티가 리포지토리 도메인 타입이 아니거나, 이미 감사 속성을 수정하거나, set 절을 안전하게 나눌 수 없으면 그대로 둔다.
+//   이런 update와 네이티브 SQL(@Query(nativeQuery = true))은 감사 컬럼을 직접 set 해야 한다.
+public class AuditingQueryMethodFactory implements JpaQueryMethodFactory {
+
+    private static final Pattern UPDATE = Pattern.compile(
+            "^(\\s*update\\s+(\\w+)(?:\\s+(?:as\\s+)?(?!set\\b)(\\w+))?\\s+set\\s+)(.*?)(\\s+where\\s+.*)?$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    @Override
+    public JpaQueryMethod build(Method method, RepositoryMetadata metadata, ProjectionFactory factory) {
+        return new AuditedUpdateQueryMethod(method, metadata, factory);
+    }
+
+    @Nullable
+    static String withAuditAssignments(@Nullable String jpql, Class<?> domainType) {
+        if (jpql == null) {
+            return null;
+        }
+        Matcher matcher = UPDATE.matcher(jpql);
+        if (!matcher.matches() || !entityName(domainType).equals(matcher.group(2))) {
+            return jpql;
+        }
+        String assignments = matcher.group(4);
+        if (assignments.chars().filter(c -> c == '(').count() != assignments.chars().filter(c -> c == ')').count()) {
+            return jpql; // set 절의 서브쿼리 where를 잘못 나눌 수 있다.
+        }
+
+        String prefix = matcher.group(3) == null ? "" : matcher.group(3) + ".";
+        StringBuilder added = new StringBuilder();
+        auditProperties(domainType).forEach((property, value) -> {
+            if (!assignments.contains(prefix + property)) {
+                added.append(", ").append(prefix).append(property).append(" = ").append(value);
+            }
+        });
+        if (added.isEmpty()) {
+            return jpql;
+        }
+        String where = matcher.group(5) == null ? "" : matcher.group(5);
+        return matcher.group(1) + assignments + added + where;
+    }
+
+    // 감사 속성 -> 바인딩할 SpEL 파라미터
+    private static Map<String, String> auditProperties(Class<?> domainType) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        ReflectionUtils.doWithFields(domainType, field -> {
+            if (field.isAnnotationPresent(LastModifiedDate.class)) {
+                properties.put(field.getName(), ":#{currentDateTime}");
+            } else if (field.isAnnotationPresent(LastModifiedBy.class)) {
+                properties.put(field.getName(), ":#{currentAuditor}");
+            }
+        });
+        return properties;
+    }
+
+    private static String entityName(Class<?> domainType) {
+        Entity entity = domainType.getAnnotation(Entity.class);
+        return entity == null || entity.name().isEmpty() ? domainType.getSimpleName() : entity.name();
+    }
+
+    private static class AuditedUpdateQueryMethod extends JpaQueryMethod {
+
+        @Nullable
+        private final String annotatedQuery;
+
+        AuditedUpdateQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory) {
+            super(method, metadata, factory, PersistenceProvider.HIBERNATE);
+            Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+            boolean jpqlUpdate = query != null && !query.nativeQuery()
+                    && AnnotatedElementUtils.hasAnnotation(method, Modifying.class);
+            this.annotatedQuery = jpqlUpdate
+                    ? withAuditAssignments(super.getAnnotatedQuery(), metadata.getDomainType())
+                    : super.getAnnotatedQuery();
+        }
+
+        @Nullable
+        @Override
+        public String getAnnotatedQuery() {
+            return annotatedQuery;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package study.data_jpa.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+// 주기적으로 replica 상태를 확인한다.
+// lagQuery(지연 시간을 초 단위로 반환하는 SQL)가 있으면 maxLag 초과 시, 없으면 연결 실패 시 replica를 사용하지 않는다.
+@Slf4j
+public class ReplicaLagMonitor implements BooleanSupplier {
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    private volatile boolean available = true;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public boolean getAsBoolean() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.lag-check-interval:5s}")
+    public void check() {
+        boolean usable = isUsable();
+        if (usable != available) {
+            log.warn("replica 사용 여부 변경: {} -> {}", available, usable);
+        }
+        available = usable;
+    }
+
+    private boolean isUsable() {
+        try (Connection connection = replica.getConnection()) {
+            if (!StringUtils.hasText(lagQuery)) {
+                return connection.isValid(1);
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                return rs.next() && Duration.ofMillis((long) (rs.getDouble(1) * 1000)).compareTo(maxLag) <= 0;
+            }
+        } catch (SQLException e) {
+            log.warn("replica 상태 확인 실패: {}", e.getMessage());
+            return false;
+        }
+    }
+}
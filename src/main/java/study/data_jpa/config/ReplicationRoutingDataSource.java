@@ -0,0 +1,28 @@
+package study.data_jpa.config;
+
+import java.util.function.BooleanSupplier;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 replica로, 나머지는 primary로 보낸다.
+// replica가 지연되거나 연결할 수 없으면(replicaAvailable = false) 읽기도 primary로 보낸다.
+// 트랜잭션 시작 시점이 아니라 첫 SQL 실행 시점에 라우팅되어야 하므로 LazyConnectionDataSourceProxy로 감싸서 사용한다.
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final BooleanSupplier replicaAvailable;
+
+    public ReplicationRoutingDataSource(BooleanSupplier replicaAvailable) {
+        this.replicaAvailable = replicaAvailable;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaAvailable.getAsBoolean()) {
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+}
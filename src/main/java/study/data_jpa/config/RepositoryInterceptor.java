@@ -0,0 +1,13 @@
+package study.data_jpa.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.data.repository.core.RepositoryInformation;
+
+// Spring Data 리포지토리 프록시에 끼워 넣을 인터셉터.
+// 빈으로 등록하면 RepositoryInterceptorConfig가 supports()가 true인 리포지토리에 자동으로 추가한다.
+public interface RepositoryInterceptor extends MethodInterceptor {
+
+    default boolean supports(RepositoryInformation repositoryInformation) {
+        return true;
+    }
+}
@@ -0,0 +1,29 @@
+package study.data_jpa.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+@Configuration
+public class RepositoryInterceptorConfig {
+
+    // BeanPostProcessor는 다른 빈보다 먼저 만들어지므로 static으로 등록하고, 인터셉터는 리포지토리 생성 시점에 조회한다.
+    @Bean
+    public static BeanPostProcessor repositoryInterceptorPostProcessor(ObjectProvider<RepositoryInterceptor> interceptors) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                                    interceptors.orderedStream()
+                                            .filter(interceptor -> interceptor.supports(repositoryInformation))
+                                            .forEach(proxyFactory::addAdvice)));
+                }
+                return bean;
+            }
+        };
+    }
+}
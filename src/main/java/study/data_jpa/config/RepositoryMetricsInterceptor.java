@@ -0,0 +1,90 @@
+package study.data_jpa.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.BaseStream;
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+// 리포지토리 메서드별 반환 건수 (spring.data.repository.results, tag: repository, method)
+// 호출 수/지연 시간은 스프링 부트가 spring.data.repository.invocations 타이머로 같은 태그를 붙여 기록한다.
+// @Modifying 메서드는 반환한 수정 건수(int/long)를 기록한다.
+// Stream 반환 메서드는 소비 전이라 건수를 알 수 없고, void 메서드는 건수가 없으므로 기록하지 않는다.
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsInterceptor implements RepositoryInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+
+        long rows = rowsOf(invocation.getMethod(), result);
+        if (rows >= 0) {
+            String repository = repositoryName(invocation);
+            String method = invocation.getMethod().getName();
+            summaries.computeIfAbsent(repository + "." + method, key -> DistributionSummary.builder("spring.data.repository.results")
+                            .tag("repository", repository)
+                            .tag("method", method)
+                            .register(meterRegistry))
+                    .record(rows);
+        }
+        return result;
+    }
+
+    // save(), findById() 처럼 상속받은 메서드도 선언 인터페이스(CrudRepository)가 아니라 MemberRepository로 기록한다.
+    private static String repositoryName(MethodInvocation invocation) {
+        if (invocation instanceof ProxyMethodInvocation proxyInvocation) {
+            for (Class<?> type : proxyInvocation.getProxy().getClass().getInterfaces()) {
+                if (Repository.class.isAssignableFrom(type) && type != Repository.class) {
+                    return type.getSimpleName();
+                }
+            }
+        }
+        return invocation.getMethod().getDeclaringClass().getSimpleName();
+    }
+
+    private static long rowsOf(Method method, Object result) {
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class || returnType == Void.class) {
+            return -1;
+        }
+        if (result instanceof Number updated && AnnotatedElementUtils.hasAnnotation(method, Modifying.class)) {
+            return updated.longValue();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) { // Page 포함
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Window<?> window) {
+            return window.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result == null) {
+            return 0;
+        }
+        // count, exists, Stream은 제외
+        if (result instanceof Number || result instanceof Boolean || result instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,32 @@
+package study.data_jpa.config;
+
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+// 등록자/수정자를 HTTP 요청당 한 번만 만들고 요청 속성에 보관한다.
+// (엔티티마다 UUID.randomUUID()를 호출하면 SecureRandom 경합이 생긴다)
+// 요청 밖(배치, 테스트, 비동기 스레드)에서는 SYSTEM_AUDITOR를 사용한다.
+public class RequestCachedAuditorAware implements AuditorAware<String> {
+
+    public static final String SYSTEM_AUDITOR = "system";
+    private static final String ATTRIBUTE = RequestCachedAuditorAware.class.getName() + ".auditor";
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.of(SYSTEM_AUDITOR);
+        }
+
+        String auditor = (String) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (auditor == null) {
+            // 실제로는 로그인 사용자 정보를 꺼내는 자리
+            auditor = UUID.randomUUID().toString();
+            attributes.setAttribute(ATTRIBUTE, auditor, RequestAttributes.SCOPE_REQUEST);
+        }
+        return Optional.of(auditor);
+    }
+}
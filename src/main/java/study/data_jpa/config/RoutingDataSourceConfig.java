@@ -0,0 +1,55 @@
+package study.data_jpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+// app.datasource.routing.enabled=true 일 때 spring.datasource 대신 primary/replica 두 개의 풀을 사용한다.
+// 로컬에서는 H2 두 개(예: jdbc:h2:tcp://localhost/~/datajpa, jdbc:h2:tcp://localhost/~/datajpa-replica)로 확인할 수 있다.
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("app.datasource.primary")
+    public HikariDataSource primaryDataSource() {
+        return DataSourceBuilder.create().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return DataSourceBuilder.create().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${app.datasource.routing.replica-lag-query:}") String lagQuery,
+                                               @Value("${app.datasource.routing.max-replica-lag:5s}") Duration maxLag) {
+        return new ReplicaLagMonitor(replica, lagQuery, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        ReplicationRoutingDataSource routing = new ReplicationRoutingDataSource(replicaLagMonitor);
+        routing.setTargetDataSources(Map.of(
+                ReplicationRoutingDataSource.PRIMARY, primary,
+                ReplicationRoutingDataSource.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
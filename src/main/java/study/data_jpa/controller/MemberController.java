@@ -1,23 +1,53 @@
 package study.data_jpa.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.data_jpa.dto.MemberCursor;
 import study.data_jpa.dto.MemberDto;
+import study.data_jpa.dto.MemberScrollDto;
 import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberCountCache;
 import study.data_jpa.repository.MemberRepository;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_SCROLL_SIZE = 100; // spring.data.web.pageable.max-page-size와 동일
+
     private final MemberRepository memberRepository;
+    private final MemberCountCache memberCountCache;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
@@ -34,7 +64,103 @@ public class MemberController {
     @GetMapping("/members")
     public Page<MemberDto> list(@PageableDefault(size = 5) Pageable pageable) {
 //        return memberRepository.findAll(pageable).map(m -> new MemberDto(m.getId(), m.getUsername(), null));
-        return memberRepository.findAll(pageable).map(MemberDto::new); // new MeberDto(Member member)
+//        return memberRepository.findAll(pageable).map(MemberDto::new); // new MeberDto(Member member)
+        // findAll(pageable)은 매 요청마다 count 쿼리를 실행한다.
+        // 컨텐츠는 Slice(size + 1건 조회)로 가져와서, 다음 페이지가 없으면 전체 건수는 offset + 컨텐츠 수로 확정한다.
+        // (마지막 페이지가 정확히 꽉 찬 경우도 포함) 그 밖에는 count를 실행하거나 캐시된 count를 사용한다.
+        Slice<Member> slice = memberRepository.findSliceBy(pageable);
+        List<Member> content = slice.getContent();
+        Page<Member> page;
+        if (!slice.hasNext() && (!content.isEmpty() || pageable.getOffset() == 0)) {
+            page = new PageImpl<>(content, pageable, pageable.getOffset() + content.size());
+        } else {
+            // 범위를 벗어난 빈 페이지는 offset으로 건수를 알 수 없으므로 count로 확인한다.
+            page = PageableExecutionUtils.getPage(content, pageable,
+                    () -> memberCountCache.get("Member.count", memberRepository::count));
+        }
+        return page.map(MemberDto::new);
+    }
+
+    // cursor 파라미터가 있으면 keyset 페이징으로 처리한다. (첫 페이지는 /members?cursor=)
+    // 응답의 nextCursor를 그대로 다음 요청의 cursor로 넘기면 된다.
+    @GetMapping(value = "/members", params = "cursor")
+    public MemberScrollDto scroll(@RequestParam("cursor") String cursor,
+                                  @RequestParam(value = "size", defaultValue = "5") int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_SCROLL_SIZE);
+        KeysetScrollPosition position;
+        try {
+            position = MemberCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            // 클라이언트가 cursor를 직접 만들거나 잘라서 보낸 경우이므로 500이 아니라 400으로 응답한다.
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        Window<Member> window = memberRepository.findMembersAfter(position, limit);
+
+        String nextCursor = null;
+        if (window.hasNext()) {
+            nextCursor = MemberCursor.encode((KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+        return new MemberScrollDto(window.map(MemberDto::new).getContent(), nextCursor, window.hasNext());
+    }
+
+    // 전체 회원을 NDJSON(한 줄에 JSON 하나)으로 내려준다.
+    // 응답은 별도 스레드에서 쓰여지므로 그 안에서 읽기 전용 트랜잭션을 열고 stream을 끝까지 소비한다.
+    @GetMapping(value = "/members/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.ok(exportBody(null, (writer, member) -> {
+            writer.write(objectMapper.writeValueAsString(member));
+            writer.write('\n');
+        }));
+    }
+
+    // Accept: text/csv 이면 같은 내용을 CSV(첫 줄은 헤더)로 내려준다.
+    @GetMapping(value = "/members/export", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportCsv() {
+        return ResponseEntity.ok(exportBody("id,username,teamName\r\n", (writer, member) -> {
+            writer.write(String.valueOf(member.getId()));
+            writer.write(',');
+            writer.write(csvField(member.getUsername()));
+            writer.write(',');
+            writer.write(csvField(member.getTeamName()));
+            writer.write("\r\n");
+        }));
+    }
+
+    private StreamingResponseBody exportBody(String header, MemberRowWriter rowWriter) {
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        return out -> readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<MemberDto> members = memberRepository.streamMemberDto()) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                if (header != null) {
+                    writer.write(header);
+                }
+                Iterator<MemberDto> iterator = members.iterator();
+                while (iterator.hasNext()) {
+                    rowWriter.write(writer, iterator.next());
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // RFC 4180: 쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 따옴표는 두 번 쓴다.
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface MemberRowWriter {
+        void write(Writer writer, MemberDto member) throws IOException;
     }
 
 //    @PostConstruct
@@ -0,0 +1,56 @@
+package study.data_jpa.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+// (username, id) keyset 위치를 클라이언트에 넘겨줄 불투명한 cursor 문자열로 변환한다.
+// 형식: base64url("{id}:{username}") - id에는 ':'가 없으므로 첫 번째 ':' 기준으로 나눈다.
+public final class MemberCursor {
+
+    private MemberCursor() {
+    }
+
+    // username이 null이면 "null" 문자열과 구분할 수 없으므로 IllegalArgumentException (findMembersAfter는 null을 반환하지 않는다)
+    public static String encode(KeysetScrollPosition position) {
+        Map<String, Object> keys = position.getKeys();
+        if (keys.get("id") == null || keys.get("username") == null) {
+            throw new IllegalArgumentException("cursor에는 id와 username이 필요합니다: " + keys);
+        }
+        String raw = keys.get("id") + ":" + keys.get("username");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 빈 cursor는 첫 페이지를 의미한다. 형식이 잘못되었으면 IllegalArgumentException
+    public static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 cursor 입니다: " + cursor, e);
+        }
+        int separator = raw.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("잘못된 cursor 입니다: " + cursor);
+        }
+
+        Long id;
+        try {
+            id = Long.valueOf(raw.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 cursor 입니다: " + cursor, e);
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("username", raw.substring(separator + 1));
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,13 @@
+package study.data_jpa.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class MemberScrollDto {
+    private List<MemberDto> content;
+    private String nextCursor; // 다음 페이지가 없으면 null
+    private boolean hasNext;
+}
@@ -0,0 +1,44 @@
+package study.data_jpa.entity;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import org.springframework.data.domain.AuditorAware;
+
+// AuditingEntityListener 대체.
+// AuditingEntityListener는 엔티티마다 메타데이터 조회 + 리플렉션(PersistentPropertyAccessor)으로
+// @CreatedDate, @LastModifiedDate, @CreatedBy, @LastModifiedBy 필드를 채운다.
+// 여기서는 BaseTimeEntity/BaseEntity의 메서드를 직접 호출하고, 시간은 주입받은 Clock으로 구한다.
+// 스프링 부트가 Hibernate에 SpringBeanContainer를 등록하므로 생성자 주입을 받을 수 있다.
+public class AuditingFieldsListener {
+
+    private final AuditorAware<String> auditorAware;
+    private final Clock clock;
+
+    public AuditingFieldsListener(AuditorAware<String> auditorAware, Clock clock) {
+        this.auditorAware = auditorAware;
+        this.clock = clock;
+    }
+
+    // AuditingEntityListener와 동일하게 생성 시 수정 필드도 함께 채운다.
+    @PrePersist
+    public void touchForCreate(Object target) {
+        if (target instanceof BaseTimeEntity entity) {
+            entity.markCreated(LocalDateTime.now(clock));
+        }
+        if (target instanceof BaseEntity entity) {
+            entity.markCreatedBy(auditorAware.getCurrentAuditor().orElse(null));
+        }
+    }
+
+    @PreUpdate
+    public void touchForUpdate(Object target) {
+        if (target instanceof BaseTimeEntity entity) {
+            entity.markModified(LocalDateTime.now(clock));
+        }
+        if (target instanceof BaseEntity entity) {
+            entity.markModifiedBy(auditorAware.getCurrentAuditor().orElse(null));
+        }
+    }
+}
@@ -1,16 +1,14 @@
 package study.data_jpa.entity;
 
 import jakarta.persistence.Column;
-import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
 import lombok.Getter;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.LastModifiedBy;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+// 감사 리스너(AuditingFieldsListener)는 BaseTimeEntity에서 상속된다.
 @Getter
 @MappedSuperclass
-@EntityListeners(AuditingEntityListener.class)
 public class BaseEntity extends BaseTimeEntity {
 
     @CreatedBy
@@ -19,4 +17,13 @@ public class BaseEntity extends BaseTimeEntity {
 
     @LastModifiedBy
     private String lastModifiedBy;
+
+    void markCreatedBy(String auditor) {
+        createdBy = auditor;
+        lastModifiedBy = auditor;
+    }
+
+    void markModifiedBy(String auditor) {
+        lastModifiedBy = auditor;
+    }
 }
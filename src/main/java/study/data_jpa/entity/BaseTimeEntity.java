@@ -5,13 +5,10 @@ import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
 import java.time.LocalDateTime;
 import lombok.Getter;
-import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners(AuditingFieldsListener.class)
 @Getter
 @MappedSuperclass
 public class BaseTimeEntity {
@@ -21,4 +18,13 @@ public class BaseTimeEntity {
 
     @LastModifiedDate
     private LocalDateTime lastModifiedDate;
+
+    void markCreated(LocalDateTime now) {
+        createdDate = now;
+        lastModifiedDate = now;
+    }
+
+    void markModified(LocalDateTime now) {
+        lastModifiedDate = now;
+    }
 }
@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -21,12 +22,17 @@ public class Item extends BaseTimeEntity implements Persistable<String> {
     @Id
     private String id;
 
+    // persist 시점에 0으로 채워지고 DB에서 읽은 엔티티는 항상 값이 있으므로 null이면 새 엔티티이다.
+    // 감사(auditing) 필드에 의존하지 않고, Persistable을 구현하지 않아도 스프링 데이터가 래퍼 타입 @Version으로 같은 판단을 한다.
+    @Version
+    private Long version;
+
     public Item(String id) {
         this.id = id;
     }
 
     @Override
     public boolean isNew() {
-        return this.getCreatedDate() == null;
+        return version == null;
     }
 }
@@ -6,16 +6,24 @@ import static lombok.AccessLevel.PROTECTED;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.NamedAttributeNode;
 import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.NamedQuery;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter
@@ -28,14 +36,27 @@ import lombok.ToString;
 )
 @NamedEntityGraph(name = "Member.all",
         attributeNodes = @NamedAttributeNode("team")) // JPA 표준.
+// keyset 페이징(username, member_id 순서)이 인덱스 탐색으로 끝나도록 복합 인덱스 선언.
+// username이 선두 컬럼이므로 findByUsername 계열의 동등 조건, findByNames의 in 조건도 이 인덱스를 탄다.
+// 2차 캐시: findById(MemberController.findMember) 결과를 리전 study.data_jpa.entity.Member에 캐시한다.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = @Index(name = "idx_member_username_id", columnList = "username, member_id"))
 public class Member extends BaseEntity {
     @Id
-    @GeneratedValue
+    // pooled 시퀀스: 시퀀스 한 번 호출로 id 100개를 미리 확보해 배치 insert 중 시퀀스 조회를 줄인다.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 100)
     @Column(name = "member_id")
     private Long id;
     private String username;
     private int age;
 
+    // 낙관적 락: 동시에 dirty checking으로 수정하면 나중에 커밋한 쪽이 ObjectOptimisticLockingFailureException을 받는다.
+    // 벌크 수정 쿼리는 엔티티를 거치지 않으므로 직접 version을 올린다.
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     @ManyToOne(fetch = LAZY)
     @JoinColumn(name = "fk_team_id")
     private Team team;
@@ -58,7 +79,10 @@ public class Member extends BaseEntity {
     }
 
     public void changeTeam(Team team) {
+        if (this.team != null) {
+            this.team.removeMember(this);
+        }
         this.team = team;
-        team.getMembers().add(this);
+        team.addMember(this);
     }
 }
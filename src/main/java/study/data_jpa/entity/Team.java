@@ -3,8 +3,13 @@ package study.data_jpa.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.AccessLevel;
@@ -12,23 +17,68 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.OptimisticLock;
 
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
+// 거의 변하지 않고 회원 조회마다 읽히므로 2차 캐시에 올린다. (members 컬렉션은 연관관계 주인이 아니라서 캐시하지 않는다)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// member.getTeam() 프록시 초기화 시 영속성 컨텍스트에 있는 다른 Team 프록시까지 in 쿼리로 함께 초기화한다.
+@BatchSize(size = 100)
+// 회원 수 순 정렬(TeamRepository.findByOrderByMemberCountDescIdAsc)을 조인/집계 없이 인덱스로 처리한다.
+@Table(indexes = @Index(name = "idx_team_member_count", columnList = "member_count, team_id"))
 public class Team {
     @Id
-    @GeneratedValue
+    // pooled 시퀀스: 시퀀스 한 번 호출로 id 100개를 미리 확보해 배치 insert 중 시퀀스 조회를 줄인다.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 100)
     @Column(name = "team_id")
     private Long id;
     private String name;
 
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    // 비정규화한 회원 수. DB 값은 TeamMemberCountListener가 member insert/update/delete 시
+    // "member_count = member_count + ?" 로만 수정한다. (엔티티 dirty checking으로는 쓰지 않는다)
+    // 메모리 값은 Member.changeTeam()이 맞춰 준다.
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private long memberCount;
+
+    // 회원이 팀을 옮길 때마다 팀의 version이 올라가 팀 수정과 충돌하지 않도록 컬렉션 변경은 버전 증가에서 제외한다.
+    // 한 팀의 members를 초기화할 때, 같은 쿼리로 읽은 모든 팀의 members를 서브쿼리 한 번으로 가져온다.
+    @Fetch(FetchMode.SUBSELECT)
+    @OptimisticLock(excluded = true)
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
     public Team(String name) {
         this.name = name;
     }
+
+    void addMember(Member member) {
+        members.add(member);
+        memberCount++;
+    }
+
+    // 로딩되지 않은 members를 remove() 하면 팀 회원 전체를 읽으므로, 초기화된 경우에만 컬렉션에서 뺀다.
+    void removeMember(Member member) {
+        if (Hibernate.isInitialized(members)) {
+            members.remove(member);
+        }
+        memberCount--;
+    }
 }
@@ -0,0 +1,13 @@
+package study.data_jpa.repository;
+
+// 청크 단위 벌크 수정 진행 상황. 실패 후 재시작 시 lastProcessedId부터 이어서 처리한다.
+public record BulkUpdateProgress(long lastProcessedId, long updatedRows, int chunks) {
+
+    public static BulkUpdateProgress startAfter(long lastProcessedId) {
+        return new BulkUpdateProgress(lastProcessedId, 0, 0);
+    }
+
+    BulkUpdateProgress next(long lastProcessedId, int updatedRows) {
+        return new BulkUpdateProgress(lastProcessedId, this.updatedRows + updatedRows, chunks + 1);
+    }
+}
@@ -0,0 +1,13 @@
+package study.data_jpa.repository;
+
+import java.util.List;
+
+// 직접 id를 할당하는 엔티티를 새 엔티티로 확정하고 저장할 때 사용한다.
+// save()는 isNew()가 false면 merge() -> select 후 insert가 나가지만, insert()는 항상 persist()만 호출한다.
+// 이미 같은 id가 있으면 flush/commit 시점에 제약 조건 예외가 발생한다.
+public interface InsertRepository<T> {
+
+    <S extends T> S insert(S entity);
+
+    <S extends T> List<S> insertAll(Iterable<S> entities);
+}
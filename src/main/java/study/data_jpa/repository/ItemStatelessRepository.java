@@ -0,0 +1,13 @@
+package study.data_jpa.repository;
+
+import org.springframework.stereotype.Repository;
+import study.data_jpa.entity.Item;
+
+// Item용 StatelessRepository. insert()는 isNew() 판단 없이 바로 insert 한다.
+@Repository
+public class ItemStatelessRepository extends StatelessRepository<Item, String> {
+
+    public ItemStatelessRepository(StatelessSessionTemplate template) {
+        super(Item.class, template);
+    }
+}
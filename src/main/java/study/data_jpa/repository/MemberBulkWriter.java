@@ -0,0 +1,44 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.entity.Member;
+
+// 대량 회원 적재용.
+// JpaRepository.saveAll()은 엔티티를 영속성 컨텍스트에 계속 쌓아두기 때문에 건수에 비례해 메모리가 늘어난다.
+// batch_size 단위로 flush(JDBC 배치 insert) + clear 하여 입력 크기와 상관없이 메모리를 일정하게 유지한다.
+@Repository
+public class MemberBulkWriter {
+    @PersistenceContext
+    private EntityManager em;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    /**
+     * 주의: new Member(username, age, team)은 team.getMembers()에 회원을 추가하므로
+     * 같은 Team 객체를 계속 사용하면 호출하는 쪽의 컬렉션이 커진다. 대량 적재 시에는 setTeam()을 사용할 것.
+     *
+     * @return 저장한 회원 수
+     */
+    @Transactional
+    public long saveAll(Stream<Member> members) {
+        long count = 0;
+        Iterator<Member> iterator = members.iterator();
+        while (iterator.hasNext()) {
+            em.persist(iterator.next());
+            if (++count % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+}
@@ -0,0 +1,124 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.function.Consumer;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.config.AuditingContext;
+import study.data_jpa.entity.Member;
+
+// MemberRepository.bulkUpdate()를 청크 단위로 나눠서 실행한다.
+// - 한 문장으로 전체를 수정하면 대상 행 전체에 락이 오래 잡히고 undo 로그가 커진다.
+// - PK 순서로 chunkSize 건씩 대상 id를 읽고, 그 id만 수정한 뒤 청크마다 커밋한다. (REQUIRES_NEW)
+// - 청크가 끝날 때마다 진행 상황을 알려주고, 실패하면 마지막으로 받은 lastProcessedId부터 다시 시작하면 된다.
+// - @Modifying(clearAutomatically = true)처럼 영속성 컨텍스트 전체나 Member 2차 캐시 리전 전체를 비우지 않고
+//   수정한 엔티티만 2차 캐시에서 제거한다.
+// - 호출한 쪽 트랜잭션의 영속성 컨텍스트에 수정한 회원이 남아 있으면 준영속으로 만든다.
+//   그대로 두면 예전 version으로 flush되어 OptimisticLockException이 난다.
+@Component
+public class MemberChunkedBulkUpdater {
+
+    // Hibernate는 네이티브 수정 쿼리의 query space에 해당하는 엔티티 리전을 통째로 비운다.
+    // 어떤 엔티티에도 속하지 않는 space를 지정해서 리전 전체 무효화를 막고, 직접 필요한 것만 제거한다.
+    private static final String QUERY_SPACE = "member_chunked_bulk_update";
+
+    private final EntityManager em;
+    private final Cache cache;
+    private final TransactionTemplate chunkTx;
+    private final AuditingContext auditingContext;
+    private final MemberCountCacheInvalidator memberCountCacheInvalidator;
+
+    public MemberChunkedBulkUpdater(EntityManager em, EntityManagerFactory emf,
+                                    PlatformTransactionManager transactionManager,
+                                    AuditingContext auditingContext,
+                                    MemberCountCacheInvalidator memberCountCacheInvalidator) {
+        this.em = em;
+        this.auditingContext = auditingContext;
+        this.memberCountCacheInvalidator = memberCountCacheInvalidator;
+        this.cache = emf.unwrap(SessionFactory.class).getCache();
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // update Member m set m.age = m.age + 1 where m.age >= :age 와 같은 결과
+    public BulkUpdateProgress bulkUpdate(int age, int chunkSize) {
+        return bulkUpdate(age, chunkSize, BulkUpdateProgress.startAfter(0), progress -> {
+        });
+    }
+
+    public BulkUpdateProgress bulkUpdate(int age, int chunkSize, BulkUpdateProgress from,
+                                         Consumer<BulkUpdateProgress> listener) {
+        BulkUpdateProgress progress = from;
+        while (true) {
+            long lastId = progress.lastProcessedId();
+            Chunk chunk = chunkTx.execute(status -> updateChunk(age, lastId, chunkSize));
+            List<Long> ids = chunk.ids();
+            if (ids.isEmpty()) {
+                return progress;
+            }
+
+            ids.forEach(id -> cache.evictEntityData(Member.class, id));
+            cache.evictQueryRegion(MemberRepository.MEMBER_QUERY_REGION); // findByUsername 등 Member 쿼리 캐시
+            memberCountCacheInvalidator.invalidate();
+            detachFromCaller(ids);
+
+            progress = progress.next(ids.get(ids.size() - 1), chunk.updatedRows());
+            listener.accept(progress);
+        }
+    }
+
+    // 청크 트랜잭션(REQUIRES_NEW)이 끝난 뒤라 em은 호출한 쪽 트랜잭션의 영속성 컨텍스트를 가리킨다.
+    // getReference()는 없는 엔티티의 프록시를 만들어 버리므로 영속성 컨텍스트에서 직접 찾는다.
+    private void detachFromCaller(List<Long> ids) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Member.class);
+        for (Long id : ids) {
+            Object managed = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+            if (managed != null) {
+                em.detach(managed);
+            }
+        }
+    }
+
+    // id를 읽은 뒤 수정하기 전에 다른 트랜잭션이 age를 바꿀 수 있으므로 수정 문장에서도 조건을 다시 확인한다.
+    // 진행 상황에는 읽은 id 개수가 아니라 실제로 수정된 행 수를 기록한다.
+    private Chunk updateChunk(int age, long lastId, int chunkSize) {
+        List<Long> ids = em.createQuery("select m.id from Member m where m.id > :lastId and m.age >= :age order by m.id",
+                        Long.class)
+                .setParameter("lastId", lastId)
+                .setParameter("age", age)
+                .setMaxResults(chunkSize)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return new Chunk(ids, 0);
+        }
+
+        int updatedRows = em.createNativeQuery("update member set age = age + 1, version = version + 1, last_modified_date = :now, last_modified_by = :auditor"
+                        + " where member_id in (:ids) and age >= :age")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(QUERY_SPACE)
+                .setParameter("now", auditingContext.getCurrentDateTime())
+                .setParameter("auditor", auditingContext.getCurrentAuditor())
+                .setParameterList("ids", ids)
+                .setParameter("age", age)
+                .executeUpdate();
+        return new Chunk(ids, updatedRows);
+    }
+
+    // ids: 이번 청크에서 읽은 대상 id (재개 위치, 2차 캐시 제거에 사용), updatedRows: 실제로 수정된 행 수
+    private record Chunk(List<Long> ids, int updatedRows) {
+    }
+}
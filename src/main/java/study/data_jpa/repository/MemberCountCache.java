@@ -0,0 +1,48 @@
+package study.data_jpa.repository;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Page 조회 시 매번 실행되는 count 쿼리 결과를 ttl 동안 재사용한다.
+// 전체 건수는 요청마다 거의 변하지 않으므로 목록 화면에서는 근사치로 충분하다.
+// 회원 저장/삭제/벌크 수정 시에는 MemberCountCacheInvalidator가 캐시를 비운다.
+@Component
+public class MemberCountCache {
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public MemberCountCache(@Value("${member.count-cache.enabled:false}") boolean enabled,
+                            @Value("${member.count-cache.ttl:10s}") Duration ttl) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public long get(String key, LongSupplier countQuery) {
+        if (!enabled) {
+            return countQuery.getAsLong();
+        }
+
+        long now = System.nanoTime();
+        CachedCount cached = counts.get(key);
+        if (cached != null && now - cached.loadedAt < ttlNanos) {
+            return cached.count;
+        }
+
+        long count = countQuery.getAsLong();
+        counts.put(key, new CachedCount(count, now));
+        return count;
+    }
+
+    public void invalidateAll() {
+        counts.clear();
+    }
+
+    private record CachedCount(long count, long loadedAt) {
+    }
+}
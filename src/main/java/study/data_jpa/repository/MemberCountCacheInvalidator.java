@@ -0,0 +1,108 @@
+package study.data_jpa.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.reflect.Method;
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.data_jpa.config.RepositoryInterceptor;
+import study.data_jpa.entity.Member;
+
+// 회원 수가 바뀔 수 있는 쓰기가 일어나면 count 캐시를 비운다.
+// - Member insert/delete 이벤트: MemberJpaRepository, MemberBulkWriter 등 EntityManager를 쓰는 모든 경로
+// - Member 리포지토리의 save~, delete~, @Modifying 메서드: deleteAllInBatch처럼 이벤트가 없는 벌크 연산
+// - 그 밖의 벌크 연산은 invalidate()를 직접 호출한다.
+// 커밋 전에 다른 요청이 이전 값으로 다시 채울 수 있으므로 커밋 이후에도 한 번 더 비운다.
+@Component
+@RequiredArgsConstructor
+public class MemberCountCacheInvalidator
+        implements RepositoryInterceptor, PostInsertEventListener, PostDeleteEventListener {
+
+    private final MemberCountCache memberCountCache;
+    private final EntityManagerFactory emf;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public boolean supports(RepositoryInformation repositoryInformation) {
+        return Member.class.equals(repositoryInformation.getDomainType());
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (isWrite(invocation.getMethod())) {
+            invalidate();
+        }
+        return result;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    public void invalidate() {
+        memberCountCache.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive() && !isRegistered()) {
+            TransactionSynchronizationManager.registerSynchronization(new InvalidateAfterCommit());
+        }
+    }
+
+    // 대량 적재(MemberBulkWriter, StatelessRepository.insertAll)는 한 트랜잭션에서 insert 이벤트가 행마다 발생하므로
+    // 트랜잭션마다 하나만 등록한다. 동기화 목록은 REQUIRES_NEW에서 함께 보류(suspend)되므로 트랜잭션별로 확인된다.
+    private static boolean isRegistered() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof InvalidateAfterCommit) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isWrite(Method method) {
+        String name = method.getName();
+        return name.startsWith("save") || name.startsWith("delete") || method.isAnnotationPresent(Modifying.class);
+    }
+
+    private class InvalidateAfterCommit implements TransactionSynchronization {
+        @Override
+        public void afterCommit() {
+            memberCountCache.invalidateAll();
+        }
+    }
+}
@@ -6,13 +6,27 @@ import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
+import study.data_jpa.config.AuditingContext;
 import study.data_jpa.entity.Member;
+import study.data_jpa.support.WarmupQueries;
 
 @Repository
 @RequiredArgsConstructor
-public class MemberJpaRepository {
+public class MemberJpaRepository implements WarmupQueries {
+    // JPQL은 상수로 두고 QueryWarmup이 시작 시점에 미리 해석(HQL 파싱)하도록 warmupQueries()로 알려준다.
+    static final String FIND_ALL = "select m from Member m";
+    static final String COUNT = "select count(m) from Member m";
+    static final String FIND_BY_USERNAME_AND_AGE_GREATER_THAN = "select m from Member m where m.username = :username and m.age > :age";
+    static final String FIND_PAGING_BY_AGE = "select m from Member m where m.age = :age order by m.username desc";
+    static final String TOTAL_COUNT_BY_AGE = "select count(m) from Member m where m.age = :age";
+    static final String BULK_UPDATE = "update Member m set m.age = m.age + 1, m.version = m.version + 1," +
+            " m.lastModifiedDate = :now, m.lastModifiedBy = :auditor" +
+            " where m.age >= :age";
+
     @PersistenceContext
     private final EntityManager em;
+    private final AuditingContext auditingContext;
+    private final MemberCountCacheInvalidator memberCountCacheInvalidator;
 
     public Member save(Member member) {
         em.persist(member);
@@ -24,7 +38,7 @@ public class MemberJpaRepository {
     }
 
     public List<Member> findAll() {
-        return em.createQuery("select m from Member m", Member.class)
+        return em.createQuery(FIND_ALL, Member.class)
                 .getResultList();
     }
 
@@ -34,7 +48,7 @@ public class MemberJpaRepository {
     }
 
     public long count() {
-        return em.createQuery("select count(m) from Member m", Long.class)
+        return em.createQuery(COUNT, Long.class)
                 .getSingleResult();
     }
 
@@ -43,7 +57,7 @@ public class MemberJpaRepository {
     }
 
     public List<Member> findByUsernameAndAgeGreaterThan(String username, int age) {
-        return em.createQuery("select m from Member m where m.username = :username and m.age > :age", Member.class)
+        return em.createQuery(FIND_BY_USERNAME_AND_AGE_GREATER_THAN, Member.class)
                 .setParameter("username", username)
                 .setParameter("age", age)
                 .getResultList();
@@ -57,7 +71,7 @@ public class MemberJpaRepository {
     }
 
     public List<Member> findPagingByAge(int age, int offset, int limit) {
-        return em.createQuery("select m from Member m where m.age = :age order by m.username desc", Member.class)
+        return em.createQuery(FIND_PAGING_BY_AGE, Member.class)
                 .setParameter("age", age)
                 .setFirstResult(offset)
                 .setMaxResults(limit)
@@ -65,16 +79,24 @@ public class MemberJpaRepository {
     }
 
     public long totalCountByAge(int age) {
-        return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+        return em.createQuery(TOTAL_COUNT_BY_AGE, Long.class)
                 .setParameter("age", age)
                 .getSingleResult();
     }
 
     public int bulkUpdate(int age) {
-        return em.createQuery("update Member m set m.age = m.age + 1" +
-                        "where age >= :age")
+        int updated = em.createQuery(BULK_UPDATE)
                 .setParameter("age", age)
+                .setParameter("now", auditingContext.getCurrentDateTime())
+                .setParameter("auditor", auditingContext.getCurrentAuditor())
                 .executeUpdate();
+        memberCountCacheInvalidator.invalidate(); // 벌크 연산은 엔티티 이벤트가 없다.
+        return updated;
     }
 
+    @Override
+    public List<String> warmupQueries() {
+        return List.of(FIND_ALL, COUNT, FIND_BY_USERNAME_AND_AGE_GREATER_THAN, FIND_PAGING_BY_AGE, TOTAL_COUNT_BY_AGE,
+                BULK_UPDATE);
+    }
 }
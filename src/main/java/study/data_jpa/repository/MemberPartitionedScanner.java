@@ -0,0 +1,142 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.data_jpa.dto.MemberDto;
+
+// 전체 회원 처리용 병렬 스캔. (memberRepository.findAll()을 한 스레드에서 도는 배치 대체)
+// - member_id 범위(min ~ max)를 partitions 개의 구간으로 나누고 구간마다 가상 스레드 하나에서 처리한다.
+// - 구간마다 StatelessSession(= 커넥션 하나)을 열어 forward-only 커서로 읽는다.
+//   영속성 컨텍스트, 스냅샷이 없으므로 건수와 상관없이 메모리가 일정하다.
+// - 결과는 MemberDto로 읽는다. (StatelessSession은 지연 로딩을 지원하지 않으므로 팀 이름은 조인으로 가져온다)
+// - 구간 수만큼 커넥션을 동시에 사용하므로 partitions는 커넥션 풀 크기보다 충분히 작게 잡을 것.
+// - 한 구간이라도 실패하면 나머지 구간을 중단하고 예외를 던진다.
+// 커서를 닫는 시점이 명확해야 하므로 Stream/Spliterator 대신 콜백(Consumer, Function)으로 행을 넘긴다.
+@Component
+public class MemberPartitionedScanner {
+
+    private static final String SCAN_QUERY = "select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name)" +
+            " from Member m left join m.team t" +
+            " where m.id between :from and :to" +
+            " order by m.id";
+
+    private final SessionFactory sessionFactory;
+    private final int fetchSize;
+
+    public MemberPartitionedScanner(EntityManagerFactory emf,
+                                    @Value("${member.partitioned-scan.fetch-size:1000}") int fetchSize) {
+        this.sessionFactory = emf.unwrap(SessionFactory.class);
+        this.fetchSize = fetchSize;
+    }
+
+    // action은 여러 스레드에서 동시에 호출된다. 처리한 회원 수를 반환한다.
+    public long forEach(int partitions, Consumer<? super MemberDto> action) {
+        return run(partitions, range -> scan(range, action)).stream().mapToLong(Long::longValue).sum();
+    }
+
+    // 구간별로 변환한 결과를 member_id 순서대로 이어 붙인다. (결과 전체가 메모리에 올라가므로 집계/요약 용도)
+    public <R> List<R> map(int partitions, Function<? super MemberDto, ? extends R> mapper) {
+        List<R> result = new ArrayList<>();
+        run(partitions, range -> {
+            List<R> mapped = new ArrayList<>();
+            scan(range, dto -> mapped.add(mapper.apply(dto)));
+            return mapped;
+        }).forEach(result::addAll);
+        return result;
+    }
+
+    public List<IdRange> partitions(int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be positive: " + partitions);
+        }
+        Object[] bounds = sessionFactory.fromStatelessSession(session ->
+                session.createSelectionQuery("select min(m.id), max(m.id) from Member m", Object[].class)
+                        .getSingleResult());
+        if (bounds[0] == null) {
+            return List.of();
+        }
+
+        long min = (Long) bounds[0];
+        long max = (Long) bounds[1];
+        long width = Math.max(1, (max - min + partitions) / partitions); // 올림
+        List<IdRange> ranges = new ArrayList<>();
+        for (long from = min; from <= max; from += width) {
+            ranges.add(new IdRange(from, Math.min(max, from + width - 1)));
+        }
+        return ranges;
+    }
+
+    private <T> List<T> run(int partitions, Function<IdRange, T> task) {
+        List<IdRange> ranges = partitions(partitions);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> futures = ranges.stream().map(range -> executor.submit(() -> task.apply(range))).toList();
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(await(future, executor));
+            }
+            return results;
+        }
+    }
+
+    private static <T> T await(Future<T> future, ExecutorService executor) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("partitioned scan interrupted", e);
+        } catch (ExecutionException e) {
+            executor.shutdownNow();
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("partitioned scan failed", e.getCause());
+        }
+    }
+
+    private long scan(IdRange range, Consumer<? super MemberDto> action) {
+        long count = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            // PostgreSQL 등은 트랜잭션 안에서만 fetch size 단위 커서를 사용한다.
+            Transaction tx = session.beginTransaction();
+            try (ScrollableResults<MemberDto> rows = session.createSelectionQuery(SCAN_QUERY, MemberDto.class)
+                    .setParameter("from", range.from())
+                    .setParameter("to", range.to())
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (rows.next()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new IllegalStateException("partition " + range + " cancelled");
+                    }
+                    action.accept(rows.get());
+                    count++;
+                }
+                tx.commit();
+            } catch (RuntimeException e) {
+                if (tx.isActive()) {
+                    tx.rollback();
+                }
+                throw e;
+            }
+        }
+        return count;
+    }
+
+    // 양 끝 포함 member_id 구간
+    public record IdRange(long from, long to) {
+    }
+}
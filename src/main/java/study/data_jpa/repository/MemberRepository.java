@@ -1,5 +1,6 @@
 package study.data_jpa.repository;
 
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
@@ -8,25 +9,28 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.dto.MemberDto;
 import study.data_jpa.entity.Member;
 
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
 
+    // Member 쿼리 캐시 리전 (application.conf에 같은 이름으로 설정, Member.findByUsername 네임드 쿼리 등)
+    String MEMBER_QUERY_REGION = "study.data_jpa.entity.Member.query";
+
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
 
     // Query Method 1) Method Name Query
     // Top~ scrolling, By~ search condition
     List<Member> findTop3HelloBy();
 
-    // Query Method 2) Named Query using @Query
-    @Query(name = "Member.findByUsername")
-    // 기본적으로 NamedQuery를 Entity.Method명으로 찾기 때문에 생략 가능.
-    List<Member> findByUsername(@Param("username") String username);
+    // Query Method 2) Named Query: findByUsername은 MemberUsernameIndex를 거치도록 MemberRepositoryCustom에서 구현한다.
+    // (인덱스를 쓰지 않거나 인덱스가 오래된 경우 Member.findByUsername 네임드 쿼리 + 쿼리 캐시로 조회)
 
     // Query Method 3) using @Query
     @Query("select m from Member m where m.username = :username and m.age = :age")
@@ -38,15 +42,8 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
-    @Query("select m from Member m where m.username in :names")
-    List<Member> findByNames(@Param("names") List<String> names);
-
     // Spring Data JPA에서는 다양한 반환 타입을 제공한다.
-    List<Member> findListByUsername(String username);
-
-    Member findMemberByUsername(String username);
-
-    Optional<Member> findOptionalByUsername(String username);
+    // findListByUsername, findMemberByUsername, findOptionalByUsername은 MemberRepositoryCustom 참고
 
     // Paging
     // 반환 타입이 Page인 경우, count 쿼리까지 자동으로 실행한다.
@@ -63,10 +60,15 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
     Slice<Member> findSliceByAge(int age, Pageable pageable);
 
+    // count 쿼리 없이 전체 회원을 size + 1 건으로 조회 (count는 MemberCountCache로 따로 관리)
+    Slice<Member> findSliceBy(Pageable pageable);
+
     // Bulk Update
     // Modifying 어노테이션을 활용해야 executeUpdate()를 실행한다.
+    // 벌크 연산은 Hibernate가 Member 2차 캐시 리전과 member 테이블의 쿼리 캐시를 함께 무효화한다.
+    // 엔티티 리스너를 거치지 않으므로 감사 컬럼은 AuditingQueryMethodFactory가 같은 문장에 추가한다.
     @Modifying(clearAutomatically = true) // clearAutomatically = true 옵션을 통해 업데이트 후에 entity manager를 초기화한다.
-    @Query("update Member m set m.age = m.age +1 where m.age >= :age")
+    @Query("update Member m set m.age = m.age +1, m.version = m.version + 1 where m.age >= :age")
     int bulkUpdate(@Param("age") int age);
 
     @Query("select m from Member m left join fetch m.team t")
@@ -91,15 +93,25 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     List<Member> findNamedEntityGraph();
 
     // QueryHints
+    // 읽기 전용 트랜잭션으로 실행하면 라우팅 DataSource 사용 시 replica에서 조회한다.
+    @Transactional(readOnly = true)
     @QueryHints(value = {@QueryHint(name = "org.hibernate.readOnly", value = "true")})
     Member findReadOnlyByUsername(String username);
 
+    // Lock: select ... for update. 트랜잭션이 끝날 때까지 다른 트랜잭션의 수정/잠금 조회를 막는다.
+    // 동시 수정은 가능하면 Member.version 낙관적 락 + OptimisticLockRetryExecutor로 처리한다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from Member m where m.id = :id")
+    Optional<Member> findWithLockById(@Param("id") Long id);
+
     List<UserNameOnly> findProjectionByUsername(String username);
 
     List<UsernameOnlyDto> findProjectionDtoByUsername(String username);
 
-    <T> List<T> findDynamicProjectByUsername(String username, Class<T> type);
+    // findDynamicProjectByUsername(username, type)은 MemberRepositoryCustom 참고
 
+    // Spring Data 중첩 projection은 Member, Team 엔티티 전체를 조회한다.
+    // findDynamicProjectByUsername(username, NestedClosedProjection.class)는 m.username, t.name만 조회한다.
     List<NestedClosedProjection> findNestedClosedProjectionByUsername(String username);
 
     @Query(value = "select * from member where username = ?", nativeQuery = true)
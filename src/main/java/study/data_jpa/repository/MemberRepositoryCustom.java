@@ -1,8 +1,40 @@
 package study.data_jpa.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+import study.data_jpa.dto.MemberDto;
 import study.data_jpa.entity.Member;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    // username 조회는 MemberUsernameIndex(username -> id)와 2차 캐시를 거친다. (member.username-index.enabled=true일 때, 기본은 바로 DB)
+    // 인덱스는 flush 시점에 갱신되므로, 조회 전에 영속성 컨텍스트에 변경이 있으면 먼저 flush 한다. (JPQL 자동 flush와 같은 동작)
+    List<Member> findByUsername(String username);
+
+    List<Member> findListByUsername(String username);
+
+    // 2건 이상이면 IncorrectResultSizeDataAccessException, 없으면 null
+    Member findMemberByUsername(String username);
+
+    Optional<Member> findOptionalByUsername(String username);
+
+    // username in (...) 조회. 중복을 제거하고, 인덱스에 없는 username만 나눠서 조회한 뒤 합친다.
+    List<Member> findByNames(Collection<String> names);
+
+    // Keyset(seek) 페이징: (username, id) 기준으로 position 이후의 회원을 limit 만큼 조회한다.
+    // username이 null인 회원은 조회하지 않는다. position에 username, id가 없으면 IllegalArgumentException
+    Window<Member> findMembersAfter(KeysetScrollPosition position, int limit);
+
+    // 전체 회원을 결과 리스트로 만들지 않고 커서로 한 건씩 읽는다. 반드시 트랜잭션 안에서 사용 후 close 할 것.
+    Stream<MemberDto> streamMemberDto();
+
+    // 동적 projection. 인터페이스/DTO를 프록시, 리플렉션 없이 미리 생성한 매퍼(ProjectionMapperRegistry)로 만든다.
+    // 중첩 closed projection, 단순 SpEL open projection도 필요한 컬럼만 조회한다.
+    // 매퍼를 만들 수 없는 타입(복잡한 SpEL, 두 단계 이상 중첩)은 엔티티 조회 후 프록시로 감싼다.
+    <T> List<T> findDynamicProjectByUsername(String username, Class<T> type);
 }
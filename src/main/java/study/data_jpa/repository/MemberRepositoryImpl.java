@@ -1,18 +1,254 @@
 package study.data_jpa.repository;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.data_jpa.dto.MemberDto;
 import study.data_jpa.entity.Member;
+import study.data_jpa.support.ProjectionMapper;
+import study.data_jpa.support.ProjectionMapperRegistry;
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom{
 
+    private static final int STREAM_FETCH_SIZE = 1000;
+    // in (...) 한 번에 넣는 최대 개수.
+    // in_clause_parameter_padding은 바인드 개수를 다음 2의 거듭제곱까지 채우므로 1,000개는 1,024개가 되어 Oracle 제한(1,000개)을 넘는다.
+    // 2의 거듭제곱인 512로 잡으면 마지막 덩어리도 512개를 넘지 않는다.
+    private static final int IN_CLAUSE_CHUNK_SIZE = 512;
+
     private final EntityManager em;
+    private final ProjectionMapperRegistry projectionMappers;
+    private final MemberUsernameIndex usernameIndex;
+    private final SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m")
                 .getResultList();
     }
+
+    // 인덱스 경로는 Session.byMultipleIds를 사용하므로 트랜잭션(실제 Session)이 있어야 한다.
+    // 공유 EntityManager는 트랜잭션 밖에서 unwrap(Session.class)을 호출하면 IllegalStateException이 발생한다.
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findByUsername(String username) {
+        if (!usernameIndex.isEnabled()) {
+            return findByUsernameFromDb(username);
+        }
+        flushIfDirty();
+        List<Long> ids = usernameIndex.idsOf(username, this::findIdsByUsername);
+        List<Member> members = multiLoad(ids);
+        if (members.stream().allMatch(member -> member != null && username.equals(member.getUsername()))) {
+            return members;
+        }
+        usernameIndex.invalidate(username);
+        return findByUsernameFromDb(username);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findListByUsername(String username) {
+        return findByUsername(username);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Member findMemberByUsername(String username) {
+        List<Member> members = findByUsername(username);
+        if (members.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, members.size());
+        }
+        return members.isEmpty() ? null : members.get(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Member> findOptionalByUsername(String username) {
+        return Optional.ofNullable(findMemberByUsername(username));
+    }
+
+    // 나눈 조회는 순서대로 실행한다. 병렬로 실행하려면 조회마다 EntityManager(커넥션)를 따로 써야 해서
+    // 결과 엔티티가 호출한 쪽 영속성 컨텍스트에 속하지 않게 되고(동일성 보장, 변경 감지 X), 요청 하나가 풀의 커넥션을 여러 개 점유한다.
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findByNames(Collection<String> names) {
+        List<String> distinct = List.copyOf(new LinkedHashSet<>(names));
+        if (!usernameIndex.isEnabled()) {
+            return findByNamesFromDb(distinct);
+        }
+        flushIfDirty();
+        Map<String, List<Long>> idsByName = usernameIndex.idsOf(distinct, this::findIdsByNames);
+        List<Member> members = multiLoad(idsByName.values().stream().flatMap(List::stream).toList());
+
+        List<String> stale = new ArrayList<>();
+        int i = 0;
+        for (Map.Entry<String, List<Long>> entry : idsByName.entrySet()) {
+            for (int n = 0; n < entry.getValue().size(); n++, i++) {
+                Member member = members.get(i);
+                if (member == null || !entry.getKey().equals(member.getUsername())) {
+                    stale.add(entry.getKey());
+                }
+            }
+        }
+        if (stale.isEmpty()) {
+            return members;
+        }
+        stale.forEach(usernameIndex::invalidate);
+        return findByNamesFromDb(distinct);
+    }
+
+    // offset 페이징은 앞의 offset 만큼 읽고 버리기 때문에 뒤 페이지로 갈수록 느려진다.
+    // 마지막으로 읽은 (username, id) 다음부터 읽으면 페이지 위치와 상관없이 인덱스 탐색 + limit 만큼만 읽는다.
+    // - username >= :username 조건을 따로 두어야 DB가 (username, member_id) 인덱스의 시작 위치를 찾는다.
+    //   (username > :username or (...)) 만 있으면 인덱스를 처음부터 읽으며 걸러서 뒤 페이지일수록 느려진다.
+    // - username이 null인 회원은 비교 조건에 걸리지 않아 중간에 빠지므로, 처음부터 조회 대상에서 제외한다.
+    @Override
+    public Window<Member> findMembersAfter(KeysetScrollPosition position, int limit) {
+        Map<String, Object> keys = position.getKeys();
+        TypedQuery<Member> query;
+        if (keys.isEmpty()) {
+            query = em.createQuery("select m from Member m where m.username is not null" +
+                    " order by m.username asc, m.id asc", Member.class);
+        } else {
+            if (keys.get("username") == null || keys.get("id") == null) {
+                throw new IllegalArgumentException("keyset 위치에 username, id가 필요합니다: " + keys);
+            }
+            query = em.createQuery("select m from Member m" +
+                            " where m.username >= :username and (m.username > :username or m.id > :id)" +
+                            " order by m.username asc, m.id asc", Member.class)
+                    .setParameter("username", keys.get("username"))
+                    .setParameter("id", keys.get("id"));
+        }
+
+        // 다음 페이지 존재 여부를 count 쿼리 없이 알기 위해 limit + 1 건을 조회한다.
+        List<Member> result = query.setMaxResults(limit + 1).getResultList();
+        boolean hasNext = result.size() > limit;
+        List<Member> content = hasNext ? result.subList(0, limit) : result;
+
+        return Window.from(content, i -> ScrollPosition.forward(keysOf(content.get(i))), hasNext);
+    }
+
+    // getResultList()는 모든 엔티티를 영속성 컨텍스트에 올려서 건수만큼 메모리를 사용한다.
+    // getResultStream()은 forward-only 커서(ScrollableResults)로 fetch size 만큼씩 가져오고,
+    // DTO로 조회하면 영속성 컨텍스트에 엔티티가 쌓이지 않기 때문에 detach/clear 없이도 메모리가 일정하다.
+    @Override
+    public Stream<MemberDto> streamMemberDto() {
+        return em.createQuery("select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name)" +
+                        " from Member m left join m.team t", MemberDto.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    // 동적 projection. 타입별로 미리 만든 매퍼(ProjectionMapperRegistry)로 필요한 컬럼만 읽어 일반 객체를 만든다.
+    // 중첩 projection(getTeam().getName())은 team을 left join 해서 name 컬럼만, 단순 SpEL은 참조한 컬럼만 읽는다.
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> findDynamicProjectByUsername(String username, Class<T> type) {
+        if (type.isAssignableFrom(Member.class)) {
+            return (List<T>) findByUsernameFromDb(username);
+        }
+        Optional<ProjectionMapper<T>> mapper = projectionMappers.find(type);
+        if (mapper.isEmpty()) {
+            // 컴파일할 수 없는 SpEL, 두 단계 이상 중첩 등은 기존처럼 엔티티 조회 후 프록시로 감싼다.
+            return em.createQuery("select m from Member m where m.username = :username", Member.class)
+                    .setParameter("username", username)
+                    .getResultList().stream()
+                    .map(member -> projectionFactory.createProjection(type, member))
+                    .toList();
+        }
+
+        ProjectionMapper<T> rowMapper = mapper.get();
+        return em.createQuery("select " + rowMapper.select("m") + " from Member m " + rowMapper.joins("m")
+                        + " where m.username = :username", Object[].class)
+                .setParameter("username", username)
+                .getResultList().stream()
+                .map(rowMapper::map)
+                .toList();
+    }
+
+    // multiLoad는 영속성 컨텍스트, 2차 캐시를 먼저 확인하고 없는 id만 in 쿼리로 읽는다.
+    // 인덱스가 오래된 경우(벌크 삭제, 다른 경로의 수정) 해당 username만 버리고 DB에서 다시 읽는다.
+    private List<Member> multiLoad(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return em.unwrap(Session.class)
+                .byMultipleIds(Member.class)
+                .multiLoad(ids);
+    }
+
+    // 인덱스를 거치면 JPQL 자동 flush가 일어나지 않으므로, 아직 flush하지 않은 변경이 있으면 먼저 반영한다.
+    // (flush 시점의 insert/update/delete 이벤트로 인덱스 항목이 지워진다)
+    private void flushIfDirty() {
+        if (TransactionSynchronizationManager.isActualTransactionActive() && em.unwrap(Session.class).isDirty()) {
+            em.flush();
+        }
+    }
+
+    // 쿼리 캐시(Member 전용 리전)를 사용하는 네임드 쿼리
+    private List<Member> findByUsernameFromDb(String username) {
+        return em.createNamedQuery("Member.findByUsername", Member.class)
+                .setParameter("username", username)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, MemberRepository.MEMBER_QUERY_REGION)
+                .getResultList();
+    }
+
+    private List<Member> findByNamesFromDb(List<String> names) {
+        List<Member> result = new ArrayList<>();
+        for (int from = 0; from < names.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<String> chunk = names.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, names.size()));
+            result.addAll(em.createQuery("select m from Member m where m.username in :names", Member.class)
+                    .setParameter("names", chunk)
+                    .getResultList());
+        }
+        return result;
+    }
+
+    private List<Long> findIdsByUsername(String username) {
+        return em.createQuery("select m.id from Member m where m.username = :username order by m.id", Long.class)
+                .setParameter("username", username)
+                .getResultList();
+    }
+
+    // 없는 username도 빈 목록으로 채워서 인덱스에 "회원 없음"까지 기록한다.
+    private Map<String, List<Long>> findIdsByNames(Collection<String> names) {
+        List<String> list = List.copyOf(names);
+        Map<String, List<Long>> idsByName = new LinkedHashMap<>();
+        list.forEach(name -> idsByName.put(name, new ArrayList<>()));
+        for (int from = 0; from < list.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<String> chunk = list.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, list.size()));
+            em.createQuery("select m.username, m.id from Member m where m.username in :names order by m.id", Object[].class)
+                    .setParameter("names", chunk)
+                    .getResultList()
+                    .forEach(row -> idsByName.get((String) row[0]).add((Long) row[1]));
+        }
+        return idsByName;
+    }
+
+    private static Map<String, Object> keysOf(Member member) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("username", member.getUsername());
+        keys.put("id", member.getId());
+        return keys;
+    }
 }
@@ -0,0 +1,74 @@
+package study.data_jpa.repository;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.springframework.stereotype.Repository;
+import study.data_jpa.entity.Member;
+
+// Member용 StatelessRepository.
+// 엔티티 이벤트에 의존하는 부가 데이터를 쓰기 후에 직접 맞춘다.
+// - username 인덱스(MemberUsernameIndex) 항목 제거
+// - count 캐시(MemberCountCache) 비우기
+// - 팀 회원 수(Team.memberCount)는 쓰기 중에 바뀐 팀 id를 모아, 쓰기가 끝나면 그 팀만 TeamMemberCountReconciler로 다시 맞춘다.
+//   StatelessSession의 이벤트에는 EventSource가 없어 TeamMemberCountListener는 이 경로를 처리하지 않는다.
+//   transform()은 변환 전 팀도 모으지만, update(member)로 팀을 옮기면 이전 팀은 알 수 없으므로 주기 reconcile에 맡긴다.
+@Repository
+public class MemberStatelessRepository extends StatelessRepository<Member, Long> {
+
+    private final MemberUsernameIndex usernameIndex;
+    private final MemberCountCache memberCountCache;
+    private final TeamMemberCountReconciler teamMemberCountReconciler;
+    // 쓰기 메서드 하나가 끝날 때까지 같은 스레드에서 hook이 호출되므로 스레드별로 모은다.
+    private final ThreadLocal<Set<Long>> changedTeamIds = ThreadLocal.withInitial(HashSet::new);
+
+    public MemberStatelessRepository(StatelessSessionTemplate template,
+                                     MemberUsernameIndex usernameIndex,
+                                     MemberCountCache memberCountCache,
+                                     TeamMemberCountReconciler teamMemberCountReconciler) {
+        super(Member.class, template);
+        this.usernameIndex = usernameIndex;
+        this.memberCountCache = memberCountCache;
+        this.teamMemberCountReconciler = teamMemberCountReconciler;
+    }
+
+    @Override
+    protected void beforeTransform(Member member) {
+        addChangedTeam(member);
+    }
+
+    @Override
+    protected void afterInsert(Member member) {
+        usernameIndex.invalidate(member.getUsername());
+        addChangedTeam(member);
+    }
+
+    @Override
+    protected void afterUpdate(Member member) {
+        usernameIndex.invalidate(member.getUsername());
+        addChangedTeam(member);
+    }
+
+    @Override
+    protected void afterDelete(Member member) {
+        usernameIndex.invalidate(member.getUsername());
+        addChangedTeam(member);
+    }
+
+    @Override
+    protected void afterWrites() {
+        memberCountCache.invalidateAll();
+        teamMemberCountReconciler.reconcile(changedTeamIds.get());
+    }
+
+    // 쓰기가 실패해도 모은 팀 id가 (풀의) 스레드에 남아 다음 쓰기에서 reconcile 되지 않게 지운다.
+    @Override
+    protected void writeFinished() {
+        changedTeamIds.remove();
+    }
+
+    private void addChangedTeam(Member member) {
+        if (member.getTeam() != null) {
+            changedTeamIds.get().add(member.getTeam().getId());
+        }
+    }
+}
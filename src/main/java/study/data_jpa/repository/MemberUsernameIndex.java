@@ -0,0 +1,189 @@
+package study.data_jpa.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.data_jpa.entity.Member;
+
+// username -> member id 목록을 메모리에 두는 read-through 인덱스. (MemberRepository.findByUsername 계열, findByNames)
+// - id만 가지고 있고 엔티티는 2차 캐시(Member 리전)에서 꺼내므로, 둘 다 캐시되어 있으면 DB를 거치지 않는다.
+// - Caffeine으로 크기(maximum-size)와 유효 시간(expire-after-write)을 제한한다.
+// - Member insert/update/delete 이벤트에서 관련 username을 지우고, 커밋 후에 한 번 더 지운다.
+//   (커밋 전에 다른 트랜잭션이 이전 값으로 다시 채울 수 있다)
+//   커밋 후에 지울 username은 세션마다 하나의 after-completion 처리에 모으고, invalidate-all-threshold를 넘으면
+//   username을 더 모으지 않고 커밋 후 인덱스 전체를 비운다. (MemberBulkWriter 같은 대량 적재에서 행마다 객체가 쌓이지 않게)
+//   StatelessSession처럼 ActionQueue가 없는 세션의 이벤트는 바로 한 번만 지운다.
+// - member.username-index.enabled=false면 이벤트 리스너를 등록하지 않고, 조회는 항상 DB로 간다.
+// - JPQL 벌크 연산은 이벤트가 없으므로, 조회 시 엔티티가 없거나 username이 다르면 해당 항목을 버리고 다시 읽는다.
+// - 애플리케이션 인스턴스마다 따로 가지는 캐시이므로, 여러 인스턴스에서는 expire-after-write 만큼 늦게 반영될 수 있다.
+@Component
+public class MemberUsernameIndex
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final boolean enabled;
+    private final Cache<String, List<Long>> ids;
+    private final int invalidateAllThreshold;
+    private final Map<SharedSessionContractImplementor, PendingInvalidations> pending = new ConcurrentHashMap<>();
+
+    public MemberUsernameIndex(EntityManagerFactory emf,
+                               MeterRegistry meterRegistry,
+                               @Value("${member.username-index.enabled:false}") boolean enabled,
+                               @Value("${member.username-index.maximum-size:100000}") long maximumSize,
+                               @Value("${member.username-index.expire-after-write:10m}") Duration expireAfterWrite,
+                               @Value("${member.username-index.invalidate-all-threshold:1000}") int invalidateAllThreshold) {
+        this.enabled = enabled;
+        this.invalidateAllThreshold = invalidateAllThreshold;
+        this.ids = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, ids, "member.username-index");
+
+        if (!enabled) {
+            return;
+        }
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<Long> idsOf(String username, Function<String, List<Long>> loader) {
+        if (!enabled) {
+            return loader.apply(username);
+        }
+        return ids.get(username, key -> List.copyOf(loader.apply(key)));
+    }
+
+    // 인덱스에 없는 username만 모아 loader를 한 번 호출한다. loader는 없는 username도 빈 목록으로 돌려줘야 캐시된다.
+    public Map<String, List<Long>> idsOf(Collection<String> usernames,
+                                         Function<Collection<String>, Map<String, List<Long>>> loader) {
+        if (!enabled) {
+            return loader.apply(usernames);
+        }
+        return ids.getAll(usernames, missing -> {
+            Map<String, List<Long>> loaded = new LinkedHashMap<>();
+            loader.apply(List.copyOf(missing)).forEach((username, memberIds) -> loaded.put(username, List.copyOf(memberIds)));
+            return loaded;
+        });
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            ids.invalidate(username);
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            invalidate(event.getSession(), username(event.getPersister(), event.getState()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+        String after = username(event.getPersister(), event.getState());
+        String before = event.getOldState() == null ? null : username(event.getPersister(), event.getOldState());
+        if (event.getOldState() == null || !Objects.equals(before, after)) {
+            invalidate(event.getSession(), before);
+            invalidate(event.getSession(), after);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            invalidate(event.getSession(), username(event.getPersister(), event.getDeletedState()));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void invalidate(SharedSessionContractImplementor session, String username) {
+        if (username == null) {
+            return;
+        }
+        invalidate(username);
+        if (session instanceof EventSource source) {
+            pending.computeIfAbsent(source, this::newPendingInvalidations).add(username);
+        }
+    }
+
+    private PendingInvalidations newPendingInvalidations(SharedSessionContractImplementor session) {
+        PendingInvalidations invalidations = new PendingInvalidations();
+        ((EventSource) session).getActionQueue().registerProcess(invalidations);
+        return invalidations;
+    }
+
+    private static String username(EntityPersister persister, Object[] state) {
+        return (String) state[persister.getEntityMetamodel().getPropertyIndex("username")];
+    }
+
+    private class PendingInvalidations implements AfterTransactionCompletionProcess {
+
+        private final Set<String> usernames = new HashSet<>();
+        private boolean all;
+
+        void add(String username) {
+            if (all) {
+                return;
+            }
+            usernames.add(username);
+            if (usernames.size() > invalidateAllThreshold) {
+                all = true;
+                usernames.clear();
+            }
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            pending.remove(session);
+            if (all) {
+                ids.invalidateAll();
+            } else {
+                ids.invalidateAll(usernames);
+            }
+        }
+    }
+}
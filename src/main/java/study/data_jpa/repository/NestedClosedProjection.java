@@ -4,7 +4,8 @@ public interface NestedClosedProjection {
     String getUsername();
     TeamInfo getTeam();
 
-    // 중첩 Projection에서는 select 쿼리 최적화가 이뤄지지 않는다.
+    // Spring Data의 중첩 Projection에서는 select 쿼리 최적화가 이뤄지지 않는다.
+    // findDynamicProjectByUsername은 ProjectionMapperRegistry로 team을 left join 해서 필요한 컬럼만 조회한다.
     interface TeamInfo {
         String getName();
     }
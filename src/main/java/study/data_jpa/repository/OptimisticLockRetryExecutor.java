@@ -0,0 +1,97 @@
+package study.data_jpa.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 낙관적 락 충돌(@Version) 시 작업을 새 트랜잭션으로 다시 실행한다.
+// - 시도마다 트랜잭션을 새로 열어 최신 엔티티를 다시 읽게 한다. 그래서 이미 열린 트랜잭션 안에서는 호출할 수 없다.
+//   (충돌한 트랜잭션은 rollback-only가 되고, 영속성 컨텍스트에는 오래된 엔티티가 남아 있다)
+// - 재시도 간격은 지수 백오프 + full jitter. 같은 행을 두고 경쟁하는 스레드들이 동시에 다시 부딪히지 않게 한다.
+// - optimistic.lock.conflicts: 충돌 횟수, optimistic.lock.exhausted: 재시도를 모두 소진한 횟수 (operation 태그)
+@Slf4j
+@Component
+public class OptimisticLockRetryExecutor {
+
+    private final TransactionTemplate tx;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    public OptimisticLockRetryExecutor(PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${optimistic-lock.retry.max-attempts:5}") int maxAttempts,
+                                       @Value("${optimistic-lock.retry.initial-backoff:5ms}") Duration initialBackoff,
+                                       @Value("${optimistic-lock.retry.max-backoff:200ms}") Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+        }
+        this.tx = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    public <T> T execute(String operation, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("optimistic lock retry must start outside a transaction: " + operation);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return tx.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                conflicts(operation).increment();
+                if (attempt >= maxAttempts) {
+                    Counter.builder("optimistic.lock.exhausted")
+                            .tag("operation", operation)
+                            .register(meterRegistry)
+                            .increment();
+                    throw e;
+                }
+                log.debug("optimistic lock conflict on {} (attempt {}/{})", operation, attempt, maxAttempts);
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable work) {
+        execute(operation, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private Counter conflicts(String operation) {
+        return Counter.builder("optimistic.lock.conflicts")
+                .description("@Version conflicts detected by OptimisticLockRetryExecutor")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        long sleepNanos = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(Duration.ofNanos(sleepNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while backing off " + attempt, e);
+        }
+    }
+}
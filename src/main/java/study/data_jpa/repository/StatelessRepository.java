@@ -0,0 +1,187 @@
+package study.data_jpa.repository;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// ETL(대량 적재/변환/삭제)용 StatelessSession 리포지토리. 엔티티 매핑은 기존 엔티티를 그대로 사용한다.
+// - 영속성 컨텍스트, 스냅샷, dirty checking이 없다. update()를 호출해야만 수정된다.
+// - 지연 로딩, cascade, 컬렉션 매핑, JPA 엔티티 리스너/콜백은 동작하지 않는다. (감사 필드는 직접 채운다)
+// - @Version은 동작한다. update/delete 시 버전을 확인하고 올린다.
+// - 2차 캐시는 거치지 않으므로 수정/삭제가 있으면 커밋 후 해당 엔티티 리전을 비운다.
+// - scroll/transform의 콜백은 읽은 순서대로 한 스레드에서 호출된다.
+public abstract class StatelessRepository<T, ID extends Comparable<? super ID>> {
+
+    private static final int SCROLL_FETCH_SIZE = 1000;
+
+    private final Class<T> type;
+    private final StatelessSessionTemplate template;
+
+    protected StatelessRepository(Class<T> type, StatelessSessionTemplate template) {
+        this.type = type;
+        this.template = template;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<T> findById(ID id) {
+        return template.execute(session -> Optional.ofNullable(session.get(type, id)));
+    }
+
+    @Transactional
+    public T insert(T entity) {
+        write(session -> insert(session, entity), false);
+        return entity;
+    }
+
+    // JDBC 배치(batch_size)로 insert 한다. 입력 크기와 상관없이 메모리가 일정하다.
+    @Transactional
+    public long insertAll(Stream<T> entities) {
+        return write(session -> {
+            long inserted = 0;
+            Iterator<T> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                insert(session, iterator.next());
+                inserted++;
+            }
+            return inserted;
+        }, false);
+    }
+
+    @Transactional
+    public void update(T entity) {
+        write(session -> update(session, entity), true);
+    }
+
+    @Transactional
+    public void delete(T entity) {
+        write(session -> {
+            // Session#delete와 달리 StatelessSession#delete는 6.6에서 deprecated가 아니다. (StatelessSession에는 remove가 없다)
+            session.delete(entity);
+            afterDelete(entity);
+            return null;
+        }, true);
+    }
+
+    // 전체를 id 순서로 읽는다.
+    @Transactional(readOnly = true)
+    public long scroll(Consumer<? super T> action) {
+        return template.execute(session -> scroll(selectAll(session), action));
+    }
+
+    // 전체를 id 순서로 읽어 transformer로 바꾼 뒤 update 한다. (읽기 커서와 배치 update가 같은 커넥션을 사용)
+    @Transactional
+    public long transform(Consumer<? super T> transformer) {
+        return write(session -> scroll(selectAll(session), entity -> {
+            beforeTransform(entity);
+            transformer.accept(entity);
+            update(session, entity);
+        }), true);
+    }
+
+    // from <= id <= to 범위만 변환한다. (MemberPartitionedScanner.partitions()로 나눈 구간을 나눠 처리할 때)
+    @Transactional
+    public long transform(ID from, ID to, Consumer<? super T> transformer) {
+        return write(session -> scroll(
+                session.createSelectionQuery("from " + entityName() + " e where e.id between :from and :to order by e.id", type)
+                        .setParameter("from", from)
+                        .setParameter("to", to),
+                entity -> {
+                    beforeTransform(entity);
+                    transformer.accept(entity);
+                    update(session, entity);
+                }), true);
+    }
+
+    // transform()이 읽은 엔티티를 transformer에 넘기기 전에 호출된다. (변경 전 상태가 필요할 때)
+    protected void beforeTransform(T entity) {
+    }
+
+    protected void afterInsert(T entity) {
+    }
+
+    protected void afterUpdate(T entity) {
+    }
+
+    protected void afterDelete(T entity) {
+    }
+
+    // public 쓰기 메서드가 끝날 때마다 한 번 호출된다. (같은 트랜잭션 안)
+    protected void afterWrites() {
+    }
+
+    // public 쓰기 메서드가 성공하든 실패하든 마지막에 한 번 호출된다. hook에서 모은 상태를 정리할 때 사용한다.
+    protected void writeFinished() {
+    }
+
+    private Void insert(StatelessSession session, T entity) {
+        template.touchForCreate(entity);
+        session.insert(entity);
+        afterInsert(entity);
+        return null;
+    }
+
+    private Void update(StatelessSession session, T entity) {
+        template.touchForUpdate(entity);
+        session.update(entity);
+        afterUpdate(entity);
+        return null;
+    }
+
+    private SelectionQuery<T> selectAll(StatelessSession session) {
+        return session.createSelectionQuery("from " + entityName() + " e order by e.id", type);
+    }
+
+    private static <E> long scroll(SelectionQuery<E> query, Consumer<? super E> action) {
+        long count = 0;
+        try (ScrollableResults<E> rows = query.setFetchSize(SCROLL_FETCH_SIZE).scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                action.accept(rows.get());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private <R> R write(Function<StatelessSession, R> work, boolean evict) {
+        try {
+            R result = template.execute(work);
+            finishWrite(evict);
+            return result;
+        } finally {
+            writeFinished();
+        }
+    }
+
+    private void finishWrite(boolean evict) {
+        if (evict) {
+            evictAfterCommit();
+        }
+        afterWrites();
+    }
+
+    private void evictAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            template.getSessionFactory().getCache().evictEntityData(type);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                template.getSessionFactory().getCache().evictEntityData(type);
+            }
+        });
+    }
+
+    private String entityName() {
+        return type.getSimpleName();
+    }
+}
@@ -0,0 +1,63 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.time.Clock;
+import java.util.function.Function;
+import javax.sql.DataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import study.data_jpa.entity.AuditingFieldsListener;
+
+// 스프링 트랜잭션에 참여하는 StatelessSession을 열어 준다.
+// - DataSourceUtils로 현재 트랜잭션(JpaTransactionManager)의 JDBC 커넥션을 받아 그 위에 StatelessSession을 연다.
+//   그래서 같은 @Transactional 안의 EntityManager 작업과 함께 커밋/롤백된다.
+// - 트랜잭션 밖에서 호출하면 auto-commit 커넥션을 사용하므로 StatelessRepository의 쓰기 메서드는 @Transactional이다.
+// - 작업이 끝나면 남은 JDBC 배치를 실행하고 세션을 닫는다.
+@Component
+public class StatelessSessionTemplate {
+
+    private final SessionFactory sessionFactory;
+    private final DataSource dataSource;
+    private final int batchSize;
+    private final AuditingFieldsListener auditing;
+
+    public StatelessSessionTemplate(EntityManagerFactory emf, DataSource dataSource,
+                                    AuditorAware<String> auditorAware, Clock clock,
+                                    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
+        this.sessionFactory = emf.unwrap(SessionFactory.class);
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+        this.auditing = new AuditingFieldsListener(auditorAware, clock);
+    }
+
+    public <R> R execute(Function<StatelessSession, R> work) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (StatelessSession session = sessionFactory.openStatelessSession(connection)) {
+            session.setJdbcBatchSize(batchSize);
+            R result = work.apply(session);
+            ((SharedSessionContractImplementor) session).getJdbcCoordinator().executeBatch();
+            return result;
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    SessionFactory getSessionFactory() {
+        return sessionFactory;
+    }
+
+    // StatelessSession은 JPA 엔티티 리스너(@PrePersist, @PreUpdate)를 호출하지 않으므로 감사 필드를 직접 채운다.
+    void touchForCreate(Object entity) {
+        auditing.touchForCreate(entity);
+    }
+
+    void touchForUpdate(Object entity) {
+        auditing.touchForUpdate(entity);
+    }
+}
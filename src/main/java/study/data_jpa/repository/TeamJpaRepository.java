@@ -6,9 +6,13 @@ import java.util.List;
 import java.util.Optional;
 import org.springframework.stereotype.Repository;
 import study.data_jpa.entity.Team;
+import study.data_jpa.support.WarmupQueries;
 
 @Repository
-public class TeamJpaRepository {
+public class TeamJpaRepository implements WarmupQueries {
+    static final String FIND_ALL = "select t from Team t";
+    static final String COUNT = "select count(t) from Team t";
+
     @PersistenceContext
     private EntityManager em;
 
@@ -22,7 +26,7 @@ public class TeamJpaRepository {
     }
 
     public List<Team> findAll() {
-        return em.createQuery("select t from Team t", Team.class).getResultList();
+        return em.createQuery(FIND_ALL, Team.class).getResultList();
     }
 
     public Optional<Team> findById(Long id) {
@@ -31,6 +35,11 @@ public class TeamJpaRepository {
     }
 
     public long count() {
-        return em.createQuery("select count(t) from Team t", Long.class).getSingleResult();
+        return em.createQuery(COUNT, Long.class).getSingleResult();
+    }
+
+    @Override
+    public List<String> warmupQueries() {
+        return List.of(FIND_ALL, COUNT);
     }
 }
@@ -0,0 +1,94 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.stereotype.Component;
+import study.data_jpa.config.RepositoryInterceptor;
+import study.data_jpa.entity.Member;
+
+// deleteAllInBatch, deleteAllByIdInBatch, @Modifying delete 쿼리는 엔티티 이벤트 없이 회원을 지우므로
+// TeamMemberCountListener가 알 수 없다. 호출 직후 TeamMemberCountReconciler로 팀 회원 수를 다시 맞춘다.
+// - 지울 회원(id 또는 엔티티 목록)을 인자로 받는 메서드는 호출 전에 그 회원들의 팀을 조회해서 해당 팀만 다시 맞춘다.
+// - 대상 회원을 알 수 없는 경우(deleteAllInBatch(), @Modifying delete 쿼리)에만 전체 팀을 다시 맞춘다.
+@Component
+@RequiredArgsConstructor
+public class TeamMemberCountBulkInterceptor implements RepositoryInterceptor {
+
+    // in (...) 한 번에 넣는 최대 개수 (MemberRepositoryImpl과 같은 기준)
+    private static final int IN_CLAUSE_CHUNK_SIZE = 512;
+
+    private final TeamMemberCountReconciler reconciler;
+    private final EntityManager em;
+
+    @Override
+    public boolean supports(RepositoryInformation repositoryInformation) {
+        return Member.class.equals(repositoryInformation.getDomainType());
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (!isBulkDelete(method)) {
+            return invocation.proceed();
+        }
+
+        List<Long> memberIds = memberIdsOf(method, invocation.getArguments());
+        Set<Long> teamIds = memberIds == null ? null : teamIdsOf(memberIds);
+        Object result = invocation.proceed();
+        if (teamIds == null) {
+            // 지워진 회원을 알 수 없으므로 전체 팀을 member 테이블과 비교한다. (회원 수에 비례하는 비용)
+            reconciler.reconcile();
+        } else {
+            reconciler.reconcile(teamIds);
+        }
+        return result;
+    }
+
+    private boolean isBulkDelete(Method method) {
+        if (method.getName().endsWith("InBatch")) {
+            return true;
+        }
+        Query query = method.getAnnotation(Query.class);
+        return method.isAnnotationPresent(Modifying.class) && query != null
+                && query.value().trim().toLowerCase(Locale.ROOT).startsWith("delete");
+    }
+
+    // deleteAllByIdInBatch(ids), deleteAllInBatch(members), deleteInBatch(members)의 회원 id. 알 수 없으면 null
+    // 한 번만 순회할 수 있는 Iterable은 미리 읽으면 실제 삭제에서 비게 되므로 Collection만 사용한다.
+    private static List<Long> memberIdsOf(Method method, Object[] args) {
+        if (!method.getName().endsWith("InBatch") || args.length != 1 || !(args[0] instanceof Collection<?> targets)) {
+            return null;
+        }
+        List<Long> memberIds = new ArrayList<>();
+        for (Object target : targets) {
+            Object id = target instanceof Member member ? member.getId() : target;
+            if (id instanceof Long memberId) {
+                memberIds.add(memberId);
+            }
+        }
+        return memberIds;
+    }
+
+    private Set<Long> teamIdsOf(List<Long> memberIds) {
+        Set<Long> teamIds = new HashSet<>();
+        for (int from = 0; from < memberIds.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Long> chunk = memberIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, memberIds.size()));
+            teamIds.addAll(em.createQuery("select distinct m.team.id from Member m" +
+                            " where m.id in :ids and m.team is not null", Long.class)
+                    .setParameter("ids", chunk)
+                    .getResultList());
+        }
+        return teamIds;
+    }
+}
@@ -0,0 +1,164 @@
+package study.data_jpa.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.ActionQueue;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+
+// Team.memberCount 유지
+// - Member insert/delete, 팀 변경(update) 이벤트마다 팀별 증감값을 세션 단위로 모은다.
+// - 커밋 직전(flush 이후)에 팀마다 "update team set member_count = member_count + ?" 한 번씩 실행한다.
+//   읽고-더하고-쓰는 방식이 아니므로 동시에 여러 트랜잭션이 같은 팀을 수정해도 값이 유실되지 않고,
+//   행 락은 커밋 직전에만 잡힌다. (회원 10,000명 배치 insert도 팀 수만큼의 update로 끝난다)
+// - 커밋 후에 수정한 Team을 2차 캐시에서 제거한다.
+// - deleteAllInBatch 같은 JPQL 벌크 연산은 이벤트가 발생하지 않으므로 TeamMemberCountReconciler가 다시 맞춘다.
+// - StatelessSession 쓰기는 MemberStatelessRepository가 변경된 팀만 reconcile 한다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TeamMemberCountListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String INCREMENT_SQL = "update team set member_count = member_count + ? where team_id = ?";
+
+    private final EntityManagerFactory emf;
+    private final Map<SharedSessionContractImplementor, PendingCounts> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            add(event.getSession(), teamId(event.getPersister(), event.getState()), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+        if (event.getOldState() == null) {
+            // 이전 상태를 모르는 경우(detached 엔티티 update 등)는 reconcile에 맡긴다.
+            log.debug("member {} updated without loaded state, team member count not adjusted", event.getId());
+            return;
+        }
+        Long before = teamId(event.getPersister(), event.getOldState());
+        Long after = teamId(event.getPersister(), event.getState());
+        if (!Objects.equals(before, after)) {
+            add(event.getSession(), before, -1);
+            add(event.getSession(), after, 1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            add(event.getSession(), teamId(event.getPersister(), event.getDeletedState()), -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void add(SharedSessionContractImplementor session, Long teamId, long delta) {
+        if (teamId == null) {
+            return;
+        }
+        if (!(session instanceof EventSource source)) {
+            // StatelessSession(이벤트에 EventSource가 없다)은 MemberStatelessRepository가 변경된 팀을 모아 reconcile 한다.
+            return;
+        }
+        pending.computeIfAbsent(source, this::newPendingCounts).add(teamId, delta);
+    }
+
+    private PendingCounts newPendingCounts(SharedSessionContractImplementor session) {
+        PendingCounts counts = new PendingCounts();
+        ActionQueue actionQueue = ((EventSource) session).getActionQueue();
+        actionQueue.registerProcess((BeforeTransactionCompletionProcess) counts);
+        actionQueue.registerProcess((AfterTransactionCompletionProcess) counts);
+        return counts;
+    }
+
+    private static Long teamId(EntityPersister persister, Object[] state) {
+        Object team = state[persister.getEntityMetamodel().getPropertyIndex("team")];
+        if (team instanceof Team t) {
+            return t.getId(); // 프록시여도 식별자 조회는 초기화하지 않는다.
+        }
+        return (Long) team;
+    }
+
+    private static void increment(SharedSessionContractImplementor session, Map<Long, Long> deltas) {
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INCREMENT_SQL)) {
+                for (Map.Entry<Long, Long> entry : deltas.entrySet()) {
+                    if (entry.getValue() == 0) {
+                        continue;
+                    }
+                    statement.setLong(1, entry.getValue());
+                    statement.setLong(2, entry.getKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private class PendingCounts implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+        private final Map<Long, Long> deltas = new HashMap<>();
+
+        void add(Long teamId, long delta) {
+            deltas.merge(teamId, delta, Long::sum);
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            // 이 시점 이후의 flush는 없으므로 여기서 더 이상 모이지 않는다.
+            pending.remove(session);
+            increment(session, deltas);
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            pending.remove(session);
+            if (success) {
+                deltas.keySet().forEach(teamId -> session.getFactory().getCache().evictEntityData(Team.class, teamId));
+            }
+        }
+    }
+}
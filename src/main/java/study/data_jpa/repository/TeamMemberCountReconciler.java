@@ -0,0 +1,75 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import java.util.Collection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.data_jpa.entity.Team;
+
+// Team.memberCount를 member 테이블(원본)과 비교해서 다른 팀만 다시 맞춘다.
+// - 이벤트를 거치지 않는 벌크 연산, 직접 실행한 SQL 등으로 생긴 차이를 바로잡는다.
+// - team.member-count.reconcile-cron 으로 주기 실행 (기본값 "-" = 비활성화)
+// - 수정된 팀 수를 반환하고, 0이 아니면 경고 로그를 남긴다.
+// - reconcile(teamIds)는 지정한 팀만 다시 맞춘다. (이벤트 없이 쓰는 StatelessSession 경로에서 변경된 팀만)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TeamMemberCountReconciler {
+
+    private static final String RECONCILE_SQL = """
+            update team t
+               set member_count = (select count(*) from member m where m.fk_team_id = t.team_id)
+             where member_count <> (select count(*) from member m where m.fk_team_id = t.team_id)
+            """;
+
+    private static final String RECONCILE_TEAMS_SQL = RECONCILE_SQL + "   and t.team_id in (:teamIds)";
+
+    // 어떤 엔티티에도 속하지 않는 query space. 지정한 팀만 2차 캐시에서 제거하기 위해 리전 전체 무효화를 막는다.
+    private static final String QUERY_SPACE = "team_member_count_reconcile";
+
+    private final EntityManager em;
+
+    @Scheduled(cron = "${team.member-count.reconcile-cron:-}")
+    @Transactional
+    public int reconcile() {
+        int fixed = em.createNativeQuery(RECONCILE_SQL)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Team.class) // 수정된 팀을 알 수 없으므로 Team 리전 전체를 비운다.
+                .executeUpdate();
+        if (fixed > 0) {
+            log.warn("team member_count drift fixed for {} teams", fixed);
+        }
+        return fixed;
+    }
+
+    @Transactional
+    public int reconcile(Collection<Long> teamIds) {
+        if (teamIds.isEmpty()) {
+            return 0;
+        }
+        int fixed = em.createNativeQuery(RECONCILE_TEAMS_SQL)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(QUERY_SPACE)
+                .setParameterList("teamIds", teamIds)
+                .executeUpdate();
+        if (fixed > 0) {
+            evictAfterCommit(teamIds);
+        }
+        return fixed;
+    }
+
+    private void evictAfterCommit(Collection<Long> teamIds) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                teamIds.forEach(teamId -> em.getEntityManagerFactory().getCache().evict(Team.class, teamId));
+            }
+        });
+    }
+}
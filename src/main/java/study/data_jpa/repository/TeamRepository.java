@@ -1,7 +1,12 @@
 package study.data_jpa.repository;
 
+import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import study.data_jpa.entity.Team;
 
 public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    // 회원 수가 많은 팀 순서. member 조인/group by 없이 idx_team_member_count 인덱스로 정렬한다.
+    List<Team> findByOrderByMemberCountDescIdAsc(Pageable pageable);
 }
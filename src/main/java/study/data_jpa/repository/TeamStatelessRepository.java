@@ -0,0 +1,13 @@
+package study.data_jpa.repository;
+
+import org.springframework.stereotype.Repository;
+import study.data_jpa.entity.Team;
+
+// Team용 StatelessRepository. members 컬렉션은 무시된다.
+@Repository
+public class TeamStatelessRepository extends StatelessRepository<Team, Long> {
+
+    public TeamStatelessRepository(StatelessSessionTemplate template) {
+        super(Team.class, template);
+    }
+}
@@ -6,7 +6,8 @@ public interface UserNameOnly {
     String getUsername(); // closed Projection.
 
     // open projection
-    // 쿼리를 통해 모든 데이터 다 가져온 후에 조립하기 때문에 비효율적.
+    // Spring Data는 쿼리를 통해 모든 데이터 다 가져온 후에 조립하기 때문에 비효율적.
+    // findDynamicProjectByUsername은 이 정도의 단순 문자열 연결을 컴파일해서 username, age 컬럼만 조회한다.
     @Value("#{target.username + ' ' + target.age}")
     String getUsernameAndAge();
 }
@@ -0,0 +1,14 @@
+package study.data_jpa.support;
+
+// select 절의 컬럼 값(row) -> projection 객체 변환기. ProjectionMapperRegistry가 타입별로 한 번만 만든다.
+// select {select(root)} from Entity {root} {joins(root)} 로 조회한 row를 map()에 넘긴다.
+public interface ProjectionMapper<T> {
+
+    // select 절. ex) m.username, m.age, id(m_team), m_team.name
+    String select(String root);
+
+    // from 절 뒤에 붙일 join. 중첩 projection이 없으면 빈 문자열. ex) left join m.team m_team
+    String joins(String root);
+
+    T map(Object[] row);
+}
@@ -0,0 +1,386 @@
+package study.data_jpa.support;
+
+import java.beans.Introspector;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.ToStringMethod;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.OpPlus;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.ast.StringLiteral;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+// Spring Data의 동적 projection(findXxxByUsername(username, Class<T> type))은 row마다
+// - 인터페이스: JDK 동적 프록시 + 리플렉션 getter 호출
+// - 클래스(DTO): 생성자 탐색 후 리플렉션 호출
+// 을 하기 때문에 할당이 많다.
+// 여기서는 타입별로 한 번만
+// - 인터페이스: getter가 필드를 바로 반환하는 구현 클래스를 바이트코드로 생성
+// - 클래스: 생성자 MethodHandle
+// 을 만들어 두고 row -> 일반 객체로 변환한다. (MemberRepository.findDynamicProjectByUsername)
+// 인터페이스는 getter가 쓰는 컬럼만 조회한다.
+// - 중첩 closed projection(TeamInfo getTeam()): 연관 엔티티를 left join 해서 중첩 getter의 컬럼만 읽는다.
+//   연관 엔티티가 없으면(id(...)가 null) 중첩 객체도 null. 한 단계까지만 지원한다.
+// - 단순 SpEL open projection(@Value("#{target.username + ' ' + target.age}")): 문자열 리터럴과 target.속성을
+//   + 로 이은 식은 참조한 컬럼만 읽어 직접 이어 붙인다. (첫 + 가 문자열 연결이어야 한다)
+// 그 밖의 SpEL, 두 단계 이상 중첩 등 지원하지 않는 타입은 Optional.empty()를 반환한다. (호출한 쪽에서 프록시로 처리)
+@Slf4j
+@Component
+public class ProjectionMapperRegistry {
+
+    private static final SpelExpressionParser SPEL = new SpelExpressionParser();
+
+    private final Map<Class<?>, Optional<ProjectionMapper<?>>> mappers = new ConcurrentHashMap<>();
+
+    // 애플리케이션 시작 시점에 미리 만들어 둘 타입 (projection.precompile)
+    public ProjectionMapperRegistry(@Value("${projection.precompile:}") String[] precompile) {
+        for (String typeName : precompile) {
+            if (!StringUtils.hasText(typeName)) {
+                continue;
+            }
+            Class<?> type = ClassUtils.resolveClassName(typeName.trim(), getClass().getClassLoader());
+            if (find(type).isEmpty()) {
+                log.warn("projection mapper를 만들 수 없는 타입입니다: {}", type.getName());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Optional<ProjectionMapper<T>> find(Class<T> type) {
+        Optional<ProjectionMapper<?>> mapper = mappers.computeIfAbsent(type, ProjectionMapperRegistry::create);
+        return mapper.map(m -> (ProjectionMapper<T>) m);
+    }
+
+    private static Optional<ProjectionMapper<?>> create(Class<?> type) {
+        try {
+            return type.isInterface() ? forInterface(type) : forClass(type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("projection mapper 생성 실패: " + type.getName(), e);
+        }
+    }
+
+    // 파라미터가 가장 많은 public 생성자 사용. 파라미터 이름 = 엔티티 속성 이름 (-parameters 컴파일 옵션 필요)
+    private static Optional<ProjectionMapper<?>> forClass(Class<?> type) throws IllegalAccessException {
+        Optional<Constructor<?>> constructor = Arrays.stream(type.getConstructors())
+                .max(Comparator.comparingInt(Constructor::getParameterCount));
+        if (constructor.isEmpty() || constructor.get().getParameterCount() == 0
+                || !constructor.get().getParameters()[0].isNamePresent()) {
+            return Optional.empty();
+        }
+
+        Selections selections = new Selections();
+        Arrays.stream(constructor.get().getParameters()).map(Parameter::getName).forEach(selections::column);
+        MethodHandle handle = MethodHandles.publicLookup().unreflectConstructor(constructor.get());
+        return Optional.of(new MethodHandleMapper<>(selections, spread(handle), null));
+    }
+
+    private static Optional<ProjectionMapper<?>> forInterface(Class<?> type) throws ReflectiveOperationException {
+        List<Method> getters = getters(type);
+        if (getters == null) {
+            return Optional.empty();
+        }
+
+        Selections selections = new Selections();
+        RowValue[] values = new RowValue[getters.size()];
+        boolean plain = true; // 모든 getter가 자기 컬럼을 순서대로 반환하면 row를 그대로 생성자 인자로 쓴다.
+        for (int i = 0; i < getters.size(); i++) {
+            Method getter = getters.get(i);
+            Value spel = getter.getAnnotation(Value.class);
+            if (spel != null) {
+                values[i] = compileConcat(spel.value(), getter, selections);
+            } else if (isNestedProjection(getter.getReturnType())) {
+                values[i] = nested(getter.getReturnType(), propertyName(getter), selections);
+            } else {
+                int column = selections.column(propertyName(getter));
+                values[i] = row -> row[column];
+                plain &= column == i;
+            }
+            if (values[i] == null) {
+                return Optional.empty();
+            }
+            plain &= spel == null && !isNestedProjection(getter.getReturnType());
+        }
+
+        MethodHandle handle = implement(type, getters);
+        return Optional.of(new MethodHandleMapper<>(selections, handle, plain ? null : values));
+    }
+
+    // 중첩 projection: 연관 엔티티가 있는지(id) + 중첩 getter 컬럼. 중첩 안의 SpEL, 중첩은 지원하지 않는다.
+    private static RowValue nested(Class<?> type, String association, Selections selections)
+            throws ReflectiveOperationException {
+        List<Method> getters = getters(type);
+        if (getters == null || getters.stream().anyMatch(getter ->
+                getter.isAnnotationPresent(Value.class) || isNestedProjection(getter.getReturnType()))) {
+            return null;
+        }
+
+        int presence = selections.presence(association);
+        int[] columns = getters.stream().mapToInt(getter -> selections.column(association, propertyName(getter))).toArray();
+        MethodHandle constructor = implement(type, getters);
+        return row -> {
+            if (row[presence] == null) {
+                return null;
+            }
+            Object[] args = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                args[i] = row[columns[i]];
+            }
+            return constructor.invokeExact(args);
+        };
+    }
+
+    // #{'리터럴' + target.속성 + ...} 만 지원한다. 지원하지 않는 식이면 null
+    private static RowValue compileConcat(String template, Method getter, Selections selections) {
+        if (!getter.getReturnType().isAssignableFrom(String.class)) {
+            return null;
+        }
+        Expression expression;
+        try {
+            expression = SPEL.parseExpression(template, ParserContext.TEMPLATE_EXPRESSION);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        List<SpelNode> operands = new ArrayList<>();
+        if (!(expression instanceof SpelExpression spel) || !flattenConcat(spel.getAST(), operands)) {
+            return null;
+        }
+        // 앞의 두 항 중 하나가 문자열 리터럴이면 첫 + 부터 문자열 연결이므로 이후도 모두 문자열 연결이다.
+        // (target.a + target.b + ' ' 처럼 숫자 덧셈이 먼저 일어날 수 있는 식은 제외)
+        if (operands.size() < 2 || !(operands.get(0) instanceof StringLiteral || operands.get(1) instanceof StringLiteral)) {
+            return null;
+        }
+
+        Object[] parts = new Object[operands.size()]; // String = 리터럴, Integer = row 컬럼 위치
+        for (int i = 0; i < operands.size(); i++) {
+            SpelNode operand = operands.get(i);
+            if (operand instanceof StringLiteral literal) {
+                parts[i] = literal.getLiteralValue().getValue();
+            } else {
+                String property = targetProperty(operand);
+                if (property == null) {
+                    return null;
+                }
+                parts[i] = selections.column(property);
+            }
+        }
+        return row -> {
+            StringBuilder result = new StringBuilder();
+            for (Object part : parts) {
+                result.append(part instanceof Integer column ? row[column] : part);
+            }
+            return result.toString();
+        };
+    }
+
+    // a + b + c 는 ((a + b) + c) 로 파싱된다. 오른쪽 항에 괄호로 묶인 + 가 있으면 지원하지 않는다.
+    private static boolean flattenConcat(SpelNode node, List<SpelNode> operands) {
+        if (!(node instanceof OpPlus)) {
+            operands.add(node);
+            return true;
+        }
+        if (node.getChildCount() != 2 || node.getChild(1) instanceof OpPlus
+                || !flattenConcat(node.getChild(0), operands)) {
+            return false;
+        }
+        operands.add(node.getChild(1));
+        return true;
+    }
+
+    // target.username -> username
+    private static String targetProperty(SpelNode node) {
+        if (node instanceof CompoundExpression && node.getChildCount() == 2
+                && node.getChild(0) instanceof PropertyOrFieldReference target && "target".equals(target.getName())
+                && node.getChild(1) instanceof PropertyOrFieldReference property) {
+            return property.getName();
+        }
+        return null;
+    }
+
+    // 구현할 getter (이름 순). getter가 아닌 추상 메서드가 있으면 null
+    private static List<Method> getters(Class<?> type) {
+        List<Method> getters = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            if (method.getParameterCount() != 0 || propertyName(method) == null) {
+                return null;
+            }
+            getters.add(method);
+        }
+        if (getters.isEmpty()) {
+            return null;
+        }
+        getters.sort(Comparator.comparing(Method::getName));
+        return getters;
+    }
+
+    private static boolean isNestedProjection(Class<?> type) {
+        return type.isInterface() && !type.getName().startsWith("java.");
+    }
+
+    // getter마다 필드를 두고 그대로 반환하는 구현 클래스. 반환하는 생성자는 (Object[]) -> Object
+    private static MethodHandle implement(Class<?> type, List<Method> getters) throws ReflectiveOperationException {
+        Class<?>[] fieldTypes = new Class<?>[getters.size()];
+        DynamicType.Builder<Object> builder = new ByteBuddy()
+                .subclass(Object.class)
+                .implement(type)
+                .method(ElementMatchers.isToString()).intercept(ToStringMethod.prefixedBySimpleClassName());
+        Implementation.Composable constructorBody = MethodCall.invoke(Object.class.getConstructor());
+        for (int i = 0; i < getters.size(); i++) {
+            Method getter = getters.get(i);
+            String property = propertyName(getter);
+            fieldTypes[i] = getter.getReturnType();
+            builder = builder.defineField(property, getter.getReturnType(), Visibility.PRIVATE)
+                    .method(ElementMatchers.named(getter.getName()).and(ElementMatchers.takesNoArguments()))
+                    .intercept(FieldAccessor.ofField(property));
+            constructorBody = constructorBody.andThen(FieldAccessor.ofField(property).setsArgumentAt(i));
+        }
+
+        Class<?> implementation = builder
+                .defineConstructor(Visibility.PUBLIC).withParameters(fieldTypes).intercept(constructorBody)
+                .make()
+                .load(type.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+        return spread(MethodHandles.publicLookup().unreflectConstructor(implementation.getConstructor(fieldTypes)));
+    }
+
+    private static MethodHandle spread(MethodHandle constructor) {
+        return constructor.asType(constructor.type().generic())
+                .asSpreader(Object[].class, constructor.type().parameterCount());
+    }
+
+    private static String propertyName(Method getter) {
+        String name = getter.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return Introspector.decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2 && getter.getReturnType() == boolean.class) {
+            return Introspector.decapitalize(name.substring(2));
+        }
+        return null;
+    }
+
+    // row의 값 하나(getter 반환 값)를 만든다.
+    @FunctionalInterface
+    private interface RowValue {
+        Object get(Object[] row) throws Throwable;
+    }
+
+    // select 절 컬럼 목록. association이 null이면 루트 엔티티 속성, property가 null이면 연관 엔티티 존재 여부(id)
+    private static class Selections {
+        private record Selection(String association, String property) {
+        }
+
+        private final List<Selection> selections = new ArrayList<>();
+
+        int column(String property) {
+            return column(null, property);
+        }
+
+        int column(String association, String property) {
+            Selection selection = new Selection(association, property);
+            int index = selections.indexOf(selection);
+            if (index >= 0) {
+                return index;
+            }
+            selections.add(selection);
+            return selections.size() - 1;
+        }
+
+        int presence(String association) {
+            return column(association, null);
+        }
+
+        String select(String root) {
+            return selections.stream().map(selection -> {
+                if (selection.association() == null) {
+                    return root + "." + selection.property();
+                }
+                String alias = root + "_" + selection.association();
+                return selection.property() == null ? "id(" + alias + ")" : alias + "." + selection.property();
+            }).collect(Collectors.joining(", "));
+        }
+
+        String joins(String root) {
+            Set<String> associations = new LinkedHashSet<>();
+            selections.stream().map(Selection::association).filter(association -> association != null).forEach(associations::add);
+            return associations.stream()
+                    .map(association -> "left join " + root + "." + association + " " + root + "_" + association)
+                    .collect(Collectors.joining(" "));
+        }
+    }
+
+    private static class MethodHandleMapper<T> implements ProjectionMapper<T> {
+        private final Selections selections;
+        private final MethodHandle constructor; // (Object[]) -> Object
+        private final RowValue[] values; // null이면 row를 그대로 생성자 인자로 사용
+
+        MethodHandleMapper(Selections selections, MethodHandle constructor, RowValue[] values) {
+            this.selections = selections;
+            this.constructor = constructor;
+            this.values = values;
+        }
+
+        @Override
+        public String select(String root) {
+            return selections.select(root);
+        }
+
+        @Override
+        public String joins(String root) {
+            return selections.joins(root);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T map(Object[] row) {
+            try {
+                Object[] args = row;
+                if (values != null) {
+                    args = new Object[values.length];
+                    for (int i = 0; i < values.length; i++) {
+                        args[i] = values[i].get(row);
+                    }
+                }
+                Object projection = constructor.invokeExact(args);
+                return (T) projection;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package study.data_jpa.support;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 한 구간(HTTP 요청, 트랜잭션, 테스트)에서 실행된 SQL 통계.
+// 한 스레드에서만 사용한다.
+public class QueryCount {
+
+    private int count;
+    private int selectCount;
+    private long elapsedNanos;
+    // 파라미터 바인딩 전 SQL(? 포함) -> 실행 횟수
+    private final Map<String, Integer> statements = new HashMap<>();
+
+    void record(String sql, long nanos) {
+        count++;
+        elapsedNanos += nanos;
+        if (sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+            selectCount++;
+        }
+        statements.merge(sql, 1, Integer::sum);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getSelectCount() {
+        return selectCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // 같은 SQL이 파라미터만 바꿔서 threshold 번 이상 실행된 경우 (N+1 의심)
+    public Map<String, Integer> getRepeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        statements.forEach((sql, times) -> {
+            if (times >= threshold) {
+                repeated.put(sql, times);
+            }
+        });
+        return repeated;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCount{count=" + count + ", select=" + selectCount + ", elapsed=" + elapsedNanos / 1_000_000 + "ms}";
+    }
+}
@@ -0,0 +1,76 @@
+package study.data_jpa.support;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+// HTTP 요청 하나에서 실행된 SQL 개수/시간을 집계한다.
+// 요청당 쿼리 예산(query-count.max-per-request)을 넘거나 같은 SQL이 반복되면 경고 로그를 남긴다.
+// StreamingResponseBody(/members/export)처럼 비동기로 처리되는 요청은 요청 스레드에서 afterCompletion이 호출되지 않으므로
+// afterConcurrentHandlingStarted에서 집계를 끝내고 ThreadLocal을 비운다. (비동기 dispatch에서는 preHandle부터 다시 센다)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryCountInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${query-count.max-per-request:20}")
+    private int maxPerRequest;
+
+    @Value("${query-count.repeated-threshold:10}")
+    private int repeatedThreshold;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCounter.start();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        record(request, handler);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        record(request, handler);
+    }
+
+    private void record(HttpServletRequest request, Object handler) {
+        QueryCount queryCount = QueryCounter.stop();
+        if (queryCount == null) {
+            return;
+        }
+
+        String handlerName = handler instanceof HandlerMethod method
+                ? method.getBeanType().getSimpleName() + "." + method.getMethod().getName()
+                : "unknown";
+
+        DistributionSummary.builder("http.server.requests.queries")
+                .tag("handler", handlerName)
+                .register(meterRegistry)
+                .record(queryCount.getCount());
+
+        if (queryCount.getCount() > maxPerRequest) {
+            log.warn("쿼리 예산 초과: {} {} -> {} (max {})",
+                    request.getMethod(), request.getRequestURI(), queryCount, maxPerRequest);
+        }
+
+        Map<String, Integer> repeated = queryCount.getRepeatedStatements(repeatedThreshold);
+        if (!repeated.isEmpty()) {
+            meterRegistry.counter("http.server.requests.repeated-queries", "handler", handlerName).increment();
+            repeated.forEach((sql, times) ->
+                    log.warn("N+1 의심: {} {} 에서 같은 SQL이 {}번 실행되었습니다. {}",
+                            request.getMethod(), request.getRequestURI(), times, sql));
+        }
+    }
+}
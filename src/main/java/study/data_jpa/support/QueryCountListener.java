@@ -0,0 +1,89 @@
+package study.data_jpa.support;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// p6spy JdbcEventListener 빈으로 등록하면 p6spy가 모든 JDBC 실행마다 호출한다.
+// - 스레드 단위(QueryCounter: HTTP 요청, 테스트) 집계
+// - 트랜잭션 단위 집계: 커밋/롤백 시 N+1 의심 SQL이 있으면 경고 로그
+// - jdbc.statements 타이머 (type = select/insert/update/delete/other)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryCountListener extends SimpleJdbcEventListener {
+
+    private static final Object TRANSACTION_KEY = new Object();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Value("${query-count.repeated-threshold:10}")
+    private int repeatedThreshold;
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        String sql = statementInformation.getSql();
+        if (sql == null) {
+            return;
+        }
+
+        QueryCounter.record(sql, timeElapsedNanos);
+        QueryCount transactionCount = currentTransactionCount();
+        if (transactionCount != null) {
+            transactionCount.record(sql, timeElapsedNanos);
+        }
+
+        timers.computeIfAbsent(typeOf(sql), type -> Timer.builder("jdbc.statements")
+                        .tag("type", type)
+                        .register(meterRegistry))
+                .record(timeElapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private QueryCount currentTransactionCount() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+
+        QueryCount queryCount = (QueryCount) TransactionSynchronizationManager.getResource(TRANSACTION_KEY);
+        if (queryCount == null) {
+            QueryCount newCount = new QueryCount();
+            TransactionSynchronizationManager.bindResource(TRANSACTION_KEY, newCount);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_KEY);
+                    newCount.getRepeatedStatements(repeatedThreshold).forEach((repeatedSql, times) ->
+                            log.warn("N+1 의심: 트랜잭션에서 같은 SQL이 {}번 실행되었습니다. {}", times, repeatedSql));
+                }
+            });
+            queryCount = newCount;
+        }
+        return queryCount;
+    }
+
+    private static String typeOf(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        return switch (keyword) {
+            case "select", "insert", "update", "delete" -> keyword;
+            default -> "other";
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package study.data_jpa.support;
+
+import java.util.Map;
+
+// 현재 스레드에서 실행되는 SQL 개수를 센다. (QueryCountListener가 기록)
+//
+// QueryCounter.start();
+// memberRepository.findMemberEntityGraph();
+// QueryCounter.assertMaxQueries(1);
+// QueryCounter.stop();
+public final class QueryCounter {
+
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static QueryCount start() {
+        QueryCount queryCount = new QueryCount();
+        CURRENT.set(queryCount);
+        return queryCount;
+    }
+
+    // start() 하지 않았으면 null
+    public static QueryCount current() {
+        return CURRENT.get();
+    }
+
+    public static QueryCount stop() {
+        QueryCount queryCount = CURRENT.get();
+        CURRENT.remove();
+        return queryCount;
+    }
+
+    public static void assertMaxQueries(int max) {
+        QueryCount queryCount = CURRENT.get();
+        if (queryCount == null) {
+            throw new IllegalStateException("QueryCounter.start()가 호출되지 않았습니다.");
+        }
+        if (queryCount.getCount() > max) {
+            Map<String, Integer> repeated = queryCount.getRepeatedStatements(2);
+            throw new AssertionError("expected at most " + max + " queries but was " + queryCount.getCount()
+                    + (repeated.isEmpty() ? "" : ", repeated statements: " + repeated));
+        }
+    }
+
+    static void record(String sql, long nanos) {
+        QueryCount queryCount = CURRENT.get();
+        if (queryCount != null) {
+            queryCount.record(sql, nanos);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package study.data_jpa.support;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.reflect.Method;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+// 배포 직후 첫 요청에서 쿼리 해석 비용이 몰리지 않도록 시작 시점에 쿼리 문자열을 미리 해석해 둔다.
+// 쿼리는 하나도 실행하지 않는다. (DB 부하, 리포지토리 메트릭/캐시에 영향 없음)
+// - WarmupQueries 구현체의 JPQL: em.createQuery로 HQL 파싱 결과(SQM)를 Hibernate 쿼리 플랜 캐시
+//   (hibernate.query.plan_cache_max_size)에 남겨 같은 문자열로 만든 쿼리가 재사용한다.
+// - 네이티브 @Query(nativeQuery = true): em.createNativeQuery로 파라미터 위치 해석 결과를 같은 캐시에 남긴다.
+//   countQuery가 있으면 함께 해석한다. SpEL(#{...})이 들어간 쿼리는 실행 시점에 문자열이 바뀌므로 건너뛴다.
+// - JPQL @Query, @NamedQuery: 시작 시점에 스프링 데이터(@Query 검증)/Hibernate(hibernate.query.startup_check)가
+//   이미 같은 방식으로 해석하므로 대상이 아니다.
+// - 메서드 이름 쿼리(findBy... 등): 해석할 문자열 없이 Criteria로 만들어지고, 스프링 데이터가 시작 시점에 PartTree를 만든다.
+//   남는 비용은 Criteria -> SQL 변환인데 이는 실행해야만 생기므로 미리 할 수 없다.
+//   대신 hibernate.criteria.plan_cache_enabled로 변환 결과를 캐시해서 첫 호출 이후에는 다시 변환하지 않게 한다.
+// - 끝나면 걸린 시간과 건수를 로그로 남긴다. 실패한 쿼리는 경고만 남기고 시작은 계속한다.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "query-warmup.enabled", havingValue = "true")
+public class QueryWarmup {
+
+    private final EntityManagerFactory emf;
+    private final ListableBeanFactory beanFactory;
+    private final List<WarmupQueries> warmupQueries;
+
+    public QueryWarmup(EntityManagerFactory emf, ListableBeanFactory beanFactory, List<WarmupQueries> warmupQueries) {
+        this.emf = emf;
+        this.beanFactory = beanFactory;
+        this.warmupQueries = warmupQueries;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        long missesBefore = statistics.getQueryPlanCacheMissCount();
+
+        Set<String> jpql = new LinkedHashSet<>();
+        warmupQueries.forEach(source -> jpql.addAll(source.warmupQueries()));
+        Set<String> sql = nativeQueries();
+
+        int failed;
+        EntityManager em = emf.createEntityManager();
+        try {
+            failed = compile(jpql, em::createQuery) + compile(sql, em::createNativeQuery);
+        } finally {
+            em.close();
+        }
+
+        log.info("query warm-up: {} JPQL, {} native queries in {} ms (failed {}, new plans {})",
+                jpql.size(), sql.size(), (System.nanoTime() - start) / 1_000_000, failed,
+                statistics.isStatisticsEnabled() ? statistics.getQueryPlanCacheMissCount() - missesBefore : "n/a");
+    }
+
+    // 모든 리포지토리의 네이티브 @Query (value, countQuery)
+    private Set<String> nativeQueries() {
+        Set<String> queries = new LinkedHashSet<>();
+        Repositories repositories = new Repositories(beanFactory);
+        for (Class<?> domainType : repositories) {
+            for (Method method : repositories.getRequiredRepositoryInformation(domainType).getQueryMethods()) {
+                Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+                if (query == null || !query.nativeQuery()) {
+                    continue;
+                }
+                for (String candidate : List.of(query.value(), query.countQuery())) {
+                    if (StringUtils.hasText(candidate) && !candidate.contains("#{")) {
+                        queries.add(candidate);
+                    }
+                }
+            }
+        }
+        return queries;
+    }
+
+    private static int compile(Set<String> queries, Consumer<String> creator) {
+        int failed = 0;
+        for (String query : queries) {
+            try {
+                creator.accept(query);
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("query warm-up failed: {}", query, e);
+            }
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,98 @@
+package study.data_jpa.support;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// org.hibernate.SQL debug 로그, p6spy 로그는 모든 SQL을 요청 스레드에서 포맷팅하고 출력한다.
+// 대신 SQL 실행 후
+// - slow-threshold 이상 걸린 SQL은 항상 파라미터 값까지 포함해서
+// - 나머지는 sample-rate 확률로 SQL만
+// 링 버퍼(고정 크기 큐)에 넣고, 출력은 별도 스레드에서 한다.
+// 버퍼가 가득 차면 샘플 로그는 버리고, 느린 SQL 로그는 요청 스레드에서 바로 출력한다.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "query-log.enabled", havingValue = "true", matchIfMissing = true)
+public class SampledQueryLogger extends SimpleJdbcEventListener {
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final BlockingQueue<Entry> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private Thread writer;
+
+    public SampledQueryLogger(@Value("${query-log.sample-rate:0.01}") double sampleRate,
+                              @Value("${query-log.slow-threshold:200ms}") Duration slowThreshold,
+                              @Value("${query-log.buffer-size:4096}") int bufferSize) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        boolean slow = timeElapsedNanos >= slowThresholdNanos;
+        if (!slow && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+
+        // 파라미터 값은 다음 실행 때 바뀌므로 느린 SQL만 지금 문자열로 만든다.
+        String sql = slow ? statementInformation.getSqlWithValues() : statementInformation.getSql();
+        Entry entry = new Entry(sql, timeElapsedNanos, slow);
+        if (!buffer.offer(entry)) {
+            if (slow) {
+                write(entry);
+            } else {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        writer = Thread.ofPlatform().daemon().name("query-log-writer").start(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    write(buffer.take());
+                }
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        writer.interrupt();
+        Entry entry;
+        while ((entry = buffer.poll()) != null) {
+            write(entry);
+        }
+        long droppedCount = dropped.get();
+        if (droppedCount > 0) {
+            log.info("버퍼가 가득 차서 버려진 샘플 SQL 로그: {}건", droppedCount);
+        }
+    }
+
+    private void write(Entry entry) {
+        if (entry.slow()) {
+            log.warn("slow query {}ms: {}", entry.elapsedNanos() / 1_000_000, entry.sql());
+        } else {
+            log.info("sampled query {}µs: {}", entry.elapsedNanos() / 1_000, entry.sql());
+        }
+    }
+
+    private record Entry(String sql, long elapsedNanos, boolean slow) {
+    }
+}
@@ -0,0 +1,9 @@
+package study.data_jpa.support;
+
+import java.util.List;
+
+// QueryWarmup이 시작 시점에 미리 해석할 JPQL 목록.
+// em.createQuery(...)로 직접 JPQL을 만드는 리포지토리가 구현한다. (@Query는 스프링 데이터가 시작 시점에 검사하면서 이미 해석한다)
+public interface WarmupQueries {
+    List<String> warmupQueries();
+}
@@ -0,0 +1,33 @@
+package study.data_jpa.config;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import study.data_jpa.entity.Member;
+
+class AuditingQueryMethodFactoryTest {
+
+    @Test
+    public void appendsAuditAssignmentsBeforeWhere() {
+        assertThat(AuditingQueryMethodFactory.withAuditAssignments(
+                "update Member m set m.age = m.age + 1 where m.age >= :age", Member.class))
+                .isEqualTo("update Member m set m.age = m.age + 1, m.lastModifiedDate = :#{currentDateTime},"
+                        + " m.lastModifiedBy = :#{currentAuditor} where m.age >= :age");
+        assertThat(AuditingQueryMethodFactory.withAuditAssignments("update Member set age = 0", Member.class))
+                .isEqualTo("update Member set age = 0, lastModifiedDate = :#{currentDateTime},"
+                        + " lastModifiedBy = :#{currentAuditor}");
+    }
+
+    @Test
+    public void keepsQueriesItCannotOrNeedNotRewrite() {
+        String explicit = "update Member m set m.age = 1, m.lastModifiedDate = :now, m.lastModifiedBy = :by where m.id = :id";
+        String subquery = "update Member m set m.age = (select max(o.age) from Member o where o.id <> m.id) where m.id = :id";
+        String otherEntity = "update Team t set t.name = :name where t.id = :id";
+
+        assertThat(AuditingQueryMethodFactory.withAuditAssignments(explicit, Member.class)).isEqualTo(explicit);
+        assertThat(AuditingQueryMethodFactory.withAuditAssignments(subquery, Member.class)).isEqualTo(subquery);
+        assertThat(AuditingQueryMethodFactory.withAuditAssignments(otherEntity, Member.class)).isEqualTo(otherEntity);
+        assertThat(AuditingQueryMethodFactory.withAuditAssignments("select m from Member m", Member.class))
+                .isEqualTo("select m from Member m");
+    }
+}
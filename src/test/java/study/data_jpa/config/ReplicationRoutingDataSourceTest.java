@@ -0,0 +1,60 @@
+package study.data_jpa.config;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// H2 메모리 DB 두 개를 primary, replica로 사용
+class ReplicationRoutingDataSourceTest {
+
+    AtomicBoolean replicaAvailable = new AtomicBoolean(true);
+    DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        ReplicationRoutingDataSource routing = new ReplicationRoutingDataSource(replicaAvailable::get);
+        routing.setTargetDataSources(Map.of(
+                ReplicationRoutingDataSource.PRIMARY, new DriverManagerDataSource("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1", "sa", ""),
+                ReplicationRoutingDataSource.REPLICA, new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", "")));
+        routing.afterPropertiesSet();
+        dataSource = new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void writeGoesToPrimary() throws Exception {
+        assertThat(currentUrl()).contains("primary");
+    }
+
+    @Test
+    public void readOnlyGoesToReplica() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(currentUrl()).contains("replica");
+    }
+
+    @Test
+    public void laggingReplicaFallsBackToPrimary() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        replicaAvailable.set(false);
+        assertThat(currentUrl()).contains("primary");
+    }
+
+    private String currentUrl() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
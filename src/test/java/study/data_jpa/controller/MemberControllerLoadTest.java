@@ -0,0 +1,113 @@
+package study.data_jpa.controller;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+// /members, /members/{id} 부하 테스트. 오래 걸리므로 -Dloadtest=true 일 때만 실행한다.
+// vthreads 프로파일(가상 스레드, 커넥션 풀 설정)로 실행하고,
+// 가상 스레드(기본) / 플랫폼 스레드(-Dloadtest.virtual-threads=false)로 각각 실행해서 결과를 비교한다. (풀 설정은 같다)
+// 실제 서버에 요청하므로 @Transactional로 롤백할 수 없다. 저장한 회원은 @AfterEach에서 지운다.
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=${loadtest.virtual-threads:true}")
+@ActiveProfiles("vthreads")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class MemberControllerLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberControllerLoadTest.class);
+
+    static final int REQUESTS_PER_CLIENT = 10;
+
+    @LocalServerPort int port;
+    @Autowired MemberRepository memberRepository;
+
+    Long memberId;
+    int clients;
+
+    @BeforeEach
+    void setUp() {
+        memberId = memberRepository.save(new Member("loadTest", 10)).getId();
+        clients = Integer.getInteger("loadtest.clients", 5_000);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteById(memberId);
+    }
+
+    @Test
+    public void findMember() throws Exception {
+        run("/members/" + memberId);
+    }
+
+    @Test
+    public void list() throws Exception {
+        run("/members?page=0&size=5");
+    }
+
+    private void run(String path) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        AtomicInteger failures = new AtomicInteger();
+
+        long start = System.nanoTime();
+        List<Future<long[]>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[REQUESTS_PER_CLIENT];
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long begin = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, BodyHandlers.discarding());
+                        latencies[r] = System.nanoTime() - begin;
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = new long[clients * REQUESTS_PER_CLIENT];
+        int index = 0;
+        for (Future<long[]> future : futures) {
+            for (long latency : future.get()) {
+                all[index++] = latency;
+            }
+        }
+        Arrays.sort(all);
+
+        log.info("{} virtualThreads={} clients={} -> {} req/s, p50={}ms, p99={}ms, failures={}",
+                path, System.getProperty("loadtest.virtual-threads", "true"), clients,
+                all.length * 1_000_000_000L / elapsed,
+                all[all.length / 2] / 1_000_000, all[(int) (all.length * 0.99)] / 1_000_000, failures.get());
+        assertThat(failures.get()).isZero();
+    }
+}
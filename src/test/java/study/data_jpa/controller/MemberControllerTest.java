@@ -0,0 +1,45 @@
+package study.data_jpa.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void scrollFirstPage() throws Exception {
+        mockMvc.perform(get("/members").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isArray());
+    }
+
+    @Test
+    public void scrollWithMalformedCursor() throws Exception {
+        // base64url이 아닌 문자열
+        mockMvc.perform(get("/members").param("cursor", "not base64!"))
+                .andExpect(status().isBadRequest());
+        // ':' 구분자가 없는 경우
+        mockMvc.perform(get("/members").param("cursor", encode("12345")))
+                .andExpect(status().isBadRequest());
+        // id가 숫자가 아닌 경우
+        mockMvc.perform(get("/members").param("cursor", encode("abc:member1")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
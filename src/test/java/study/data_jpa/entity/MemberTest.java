@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import java.util.List;
+import study.data_jpa.config.RequestCachedAuditorAware;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
@@ -70,5 +71,24 @@ class MemberTest {
         System.out.println("findMember.lastModifiedBy() = " + findMember.getLastModifiedBy());
     }
 
+    @Test
+    public void auditingFieldsListener() throws Exception {
+        //given
+        Member member = new Member("auditMember", 10);
+        em.persist(member);
+
+        //then - 생성 시 수정 필드도 같은 값으로 채워지고, 요청 밖이므로 SYSTEM_AUDITOR
+        assertNotNull(member.getCreatedDate());
+        assertEquals(member.getCreatedDate(), member.getLastModifiedDate());
+        assertEquals(RequestCachedAuditorAware.SYSTEM_AUDITOR, member.getCreatedBy());
+        assertEquals(RequestCachedAuditorAware.SYSTEM_AUDITOR, member.getLastModifiedBy());
+
+        //when
+        Thread.sleep(10);
+        member.setUsername("auditMember2");
+        em.flush();
 
-}
\ No newline at end of file
+        //then
+        assertTrue(member.getLastModifiedDate().isAfter(member.getCreatedDate()));
+    }
+}
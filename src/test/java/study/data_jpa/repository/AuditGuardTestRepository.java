@@ -0,0 +1,22 @@
+package study.data_jpa.repository;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import study.data_jpa.entity.Member;
+
+// AuditedModifyingUpdateTest에서 새로 추가된 @Modifying 메서드 역할을 한다.
+public interface AuditGuardTestRepository extends Repository<Member, Long> {
+
+    // 감사 컬럼은 AuditingQueryMethodFactory가 추가한다.
+    @Modifying
+    @Query("update Member m set m.age = :age where m.id = :id")
+    int changeAgeWithoutAudit(@Param("id") Long id, @Param("age") int age);
+
+    @Modifying
+    @Query("update Member m set m.age = :age," +
+            " m.lastModifiedDate = :#{currentDateTime}, m.lastModifiedBy = :#{currentAuditor}" +
+            " where m.id = :id")
+    int changeAge(@Param("id") Long id, @Param("age") int age);
+}
@@ -0,0 +1,57 @@
+package study.data_jpa.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.config.RequestCachedAuditorAware;
+import study.data_jpa.entity.Member;
+
+@SpringBootTest
+@Transactional
+class AuditedModifyingUpdateTest {
+    @Autowired AuditGuardTestRepository auditGuardTestRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired EntityManager em;
+
+    @Test
+    public void addsAuditColumnsToModifyingUpdate() throws Exception {
+        //given - 감사 컬럼을 비워 둔다.
+        Member member = memberRepository.save(new Member("auditGuard", 10));
+        em.flush();
+        em.createNativeQuery("update member set last_modified_date = null, last_modified_by = null where member_id = :id")
+                .setParameter("id", member.getId())
+                .executeUpdate();
+        em.clear();
+
+        //when
+        int updated = auditGuardTestRepository.changeAgeWithoutAudit(member.getId(), 20);
+
+        //then
+        assertThat(updated).isEqualTo(1);
+        Member changed = memberRepository.findById(member.getId()).get();
+        assertThat(changed.getAge()).isEqualTo(20);
+        assertThat(changed.getLastModifiedDate()).isNotNull();
+        assertThat(changed.getLastModifiedBy()).isEqualTo(RequestCachedAuditorAware.SYSTEM_AUDITOR);
+    }
+
+    @Test
+    public void acceptsModifyingUpdateWithAuditColumns() throws Exception {
+        //given
+        Member member = memberRepository.save(new Member("auditGuard", 10));
+        em.flush();
+        em.clear();
+
+        //when
+        int updated = auditGuardTestRepository.changeAge(member.getId(), 20);
+
+        //then
+        assertThat(updated).isEqualTo(1);
+        Member changed = memberRepository.findById(member.getId()).get();
+        assertThat(changed.getAge()).isEqualTo(20);
+        assertThat(changed.getLastModifiedBy()).isEqualTo(RequestCachedAuditorAware.SYSTEM_AUDITOR);
+    }
+}
@@ -1,16 +1,29 @@
 package study.data_jpa.repository;
 
+import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.entity.Item;
+import study.data_jpa.support.QueryCount;
+import study.data_jpa.support.QueryCounter;
 
 @SpringBootTest
 class ItemRepositoryTest {
     @Autowired
     ItemRepository itemRepository;
+    @Autowired
+    EntityManager em;
+
+    @AfterEach
+    void stopQueryCounter() {
+        QueryCounter.stop();
+    }
 
     @Test
     public void save() {
@@ -22,4 +35,36 @@ class ItemRepositoryTest {
         itemRepository.save(item);
     }
 
-}
\ No newline at end of file
+    @Test
+    @Transactional
+    public void saveWithoutSelect() {
+        //given
+        QueryCount queryCount = QueryCounter.start();
+
+        //when
+        // @Version이 null이므로 merge가 아닌 persist -> select 없이 insert만 실행된다.
+        for (int i = 0; i < 10_000; i++) {
+            itemRepository.save(new Item("save-" + i));
+        }
+        em.flush();
+
+        //then
+        assertThat(queryCount.getSelectCount()).isZero();
+        assertThat(queryCount.getCount()).isPositive(); // 배치 insert (batch_size 단위)
+    }
+
+    @Test
+    @Transactional
+    public void insert() {
+        //given
+        QueryCount queryCount = QueryCounter.start();
+
+        //when
+        itemRepository.insert(new Item("insert-1"));
+        em.flush();
+
+        //then
+        assertThat(queryCount.getSelectCount()).isZero();
+        assertThat(itemRepository.findById("insert-1")).isPresent();
+    }
+}
@@ -0,0 +1,79 @@
+package study.data_jpa.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.support.QueryCount;
+import study.data_jpa.support.QueryCounter;
+
+// MemberBulkWriter.saveAll()이 자체 트랜잭션에서 batch_size마다 flush/clear 하는 동작을 그대로 확인하기 위해
+// 테스트 트랜잭션으로 감싸지 않는다. 저장한 회원은 @AfterEach에서 지운다.
+@SpringBootTest
+class MemberBulkWriterTest {
+    @Autowired MemberBulkWriter memberBulkWriter;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    static final int COUNT = 300; // batch_size(100)의 3배
+
+    List<Member> saved = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        QueryCounter.stop();
+        memberRepository.deleteAllByIdInBatch(saved.stream().map(Member::getId).toList());
+    }
+
+    @Test
+    public void saveAll() throws Exception {
+        //given
+        long before = memberRepository.count();
+
+        //when
+        QueryCounter.start();
+        long count = memberBulkWriter.saveAll(IntStream.range(0, COUNT).mapToObj(i -> {
+            Member member = new Member("bulk" + i, i % 100);
+            saved.add(member);
+            return member;
+        }));
+        QueryCount queryCount = QueryCounter.stop();
+
+        //then
+        assertThat(count).isEqualTo(COUNT);
+        assertThat(memberRepository.count()).isEqualTo(before + COUNT);
+        // 한 건씩이 아니라 batch_size 단위 JDBC 배치(executeBatch) 3번으로 insert 된다.
+        int inserts = queryCount.getRepeatedStatements(1).entrySet().stream()
+                .filter(statement -> statement.getKey().stripLeading().startsWith("insert into member"))
+                .mapToInt(statement -> statement.getValue())
+                .sum();
+        assertThat(inserts).isEqualTo(COUNT / 100);
+    }
+
+    @Test
+    public void registersOneCountCacheSynchronizationPerTransaction() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            //given
+            int before = TransactionSynchronizationManager.getSynchronizations().size();
+
+            //when - saveAll()은 바깥 트랜잭션에 참여하고, insert 이벤트가 행마다 발생한다.
+            memberBulkWriter.saveAll(IntStream.range(0, COUNT).mapToObj(i -> {
+                Member member = new Member("bulkSync" + i, i % 100);
+                saved.add(member);
+                return member;
+            }));
+
+            //then - 행 수와 상관없이 MemberCountCacheInvalidator의 커밋 후 동기화 하나만 늘어난다.
+            assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(before + 1);
+        });
+    }
+}
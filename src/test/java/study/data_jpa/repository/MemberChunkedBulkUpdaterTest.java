@@ -0,0 +1,89 @@
+package study.data_jpa.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+
+// bulkUpdate()는 청크마다 REQUIRES_NEW로 커밋하고, 재개 지점도 커밋된 진행 상황을 기준으로 한다.
+// 그래서 테스트 트랜잭션 안에서 만든 회원은 청크 트랜잭션에서 보이지 않는다. 회원은 커밋해서 만들고 @AfterEach에서 지운다.
+@SpringBootTest
+class MemberChunkedBulkUpdaterTest {
+    @Autowired MemberChunkedBulkUpdater memberChunkedBulkUpdater;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired EntityManager em;
+
+    List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(members.stream().map(Member::getId).toList());
+    }
+
+    @Test
+    public void bulkUpdateByChunk() throws Exception {
+        //given
+        for (int i = 0; i < 5; i++) {
+            members.add(memberRepository.save(new Member("chunk" + i, 5000)));
+        }
+        memberRepository.findById(members.get(0).getId()); // 2차 캐시에 올라간 상태
+
+        //when
+        List<BulkUpdateProgress> progresses = new ArrayList<>();
+        BulkUpdateProgress result = memberChunkedBulkUpdater.bulkUpdate(5000, 2,
+                BulkUpdateProgress.startAfter(0), progresses::add);
+
+        //then
+        assertThat(result.updatedRows()).isEqualTo(5);
+        assertThat(result.chunks()).isEqualTo(3);
+        assertThat(progresses).extracting(BulkUpdateProgress::updatedRows).containsExactly(2L, 4L, 5L);
+        // 수정된 엔티티는 2차 캐시에서 제거되었으므로 변경된 값이 보인다.
+        assertThat(memberRepository.findById(members.get(0).getId()).get().getAge()).isEqualTo(5001);
+    }
+
+    @Test
+    public void resume() throws Exception {
+        //given
+        for (int i = 0; i < 4; i++) {
+            members.add(memberRepository.save(new Member("resume" + i, 6000)));
+        }
+
+        //when
+        // 두 번째 회원까지 처리하고 실패했다고 가정
+        BulkUpdateProgress failedAt = new BulkUpdateProgress(members.get(1).getId(), 2, 1);
+        BulkUpdateProgress result = memberChunkedBulkUpdater.bulkUpdate(6000, 10, failedAt, progress -> {
+        });
+
+        //then
+        assertThat(result.updatedRows()).isEqualTo(4);
+        assertThat(memberRepository.findById(members.get(1).getId()).get().getAge()).isEqualTo(6000);
+        assertThat(memberRepository.findById(members.get(2).getId()).get().getAge()).isEqualTo(6001);
+        assertThat(memberRepository.findById(members.get(3).getId()).get().getAge()).isEqualTo(6001);
+    }
+
+    @Test
+    public void detachUpdatedMembersFromCaller() throws Exception {
+        //given
+        members.add(memberRepository.save(new Member("detach", 7500)));
+        Long id = members.get(0).getId();
+
+        //when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Member member = memberRepository.findById(id).get();
+            memberChunkedBulkUpdater.bulkUpdate(7500, 10);
+
+            //then - 예전 version을 가진 엔티티가 남아 있지 않아 커밋 시 충돌하지 않는다.
+            assertThat(em.contains(member)).isFalse();
+            assertThat(memberRepository.findById(id).get().getAge()).isEqualTo(7501);
+        });
+    }
+}
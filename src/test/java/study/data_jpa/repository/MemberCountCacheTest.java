@@ -0,0 +1,40 @@
+package study.data_jpa.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.entity.Member;
+
+// count 캐시는 기본으로 꺼져 있으므로 켜고 검증한다.
+@SpringBootTest(properties = "member.count-cache.enabled=true")
+@Transactional
+class MemberCountCacheTest {
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired MemberCountCache memberCountCache;
+    @Autowired EntityManager em;
+
+    @Test
+    public void countCacheInvalidation() throws Exception {
+        //given
+        long before = memberCountCache.get("Member.count", memberRepository::count);
+        assertThat(memberCountCache.get("Member.count", () -> -1)).isEqualTo(before); // ttl 동안 재사용
+
+        //when
+        // 스프링 데이터 리포지토리를 거치지 않는 경로도 insert/delete 이벤트로 캐시를 비운다.
+        Member member = memberJpaRepository.save(new Member("countCache", 10));
+        em.flush();
+        long afterSave = memberCountCache.get("Member.count", memberRepository::count);
+        memberJpaRepository.delete(member);
+        em.flush();
+        long afterDelete = memberCountCache.get("Member.count", memberRepository::count);
+
+        //then
+        assertThat(afterSave).isEqualTo(before + 1);
+        assertThat(afterDelete).isEqualTo(before);
+    }
+}
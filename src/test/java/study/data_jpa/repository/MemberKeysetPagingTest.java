@@ -0,0 +1,90 @@
+package study.data_jpa.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.support.QueryCounter;
+
+// keyset 페이징은 몇 번째 페이지든 읽는 행 수가 같아야 한다.
+// 10,000 페이지 분량의 회원을 SQL로 넣고, 2번째 페이지와 10,001번째 페이지를 비교한다.
+// 읽은 행 수는 H2의 EXPLAIN ANALYZE(scanCount)로 확인한다. 넣은 회원은 @AfterEach에서 지운다.
+@SpringBootTest
+class MemberKeysetPagingTest {
+
+    static final int SIZE = 3;
+    static final int PAGES = 10_000;
+    static final long ID_OFFSET = 1_000_000_000L; // 시퀀스로 만든 id와 겹치지 않게
+    static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("insert into member (member_id, username, age, version)" +
+                " select ? + x, concat('seek', lpad(x, 6, '0')), 10, 0 from system_range(1, ?)",
+                ID_OFFSET, SIZE * (PAGES + 1));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        QueryCounter.stop();
+        jdbcTemplate.update("delete from member where member_id > ?", ID_OFFSET);
+    }
+
+    @Test
+    public void sameCostAtFirstAndLastPage() throws Exception {
+        //given - 각 페이지 직전 회원(x번째)을 cursor로 사용
+        int first = SIZE;
+        int last = SIZE * PAGES;
+
+        //when & then
+        assertThat(scanCount(first)).isEqualTo(scanCount(last)).isLessThanOrEqualTo(SIZE + 2);
+        assertSinglePageQuery(first);
+        assertSinglePageQuery(last);
+    }
+
+    // 쿼리 하나(count, offset 없음)로 cursor 다음 회원부터 SIZE 건을 읽는다.
+    private void assertSinglePageQuery(int x) {
+        QueryCounter.start();
+        Window<Member> window = memberRepository.findMembersAfter(positionOf(x), SIZE);
+        assertThat(QueryCounter.stop().getSelectCount()).isEqualTo(1);
+        assertThat(window.getContent()).extracting(Member::getId)
+                .containsExactly(ID_OFFSET + x + 1, ID_OFFSET + x + 2, ID_OFFSET + x + 3);
+    }
+
+    // MemberRepositoryImpl.findMembersAfter와 같은 조건 (limit + 1 건)
+    private int scanCount(int x) {
+        String plan = jdbcTemplate.queryForObject("explain analyze select member_id from member" +
+                        " where username >= ? and (username > ? or member_id > ?)" +
+                        " order by username, member_id limit ?",
+                String.class, username(x), username(x), ID_OFFSET + x, SIZE + 1);
+        Matcher matcher = SCAN_COUNT.matcher(plan);
+        assertThat(matcher.find()).as(plan).isTrue();
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private static KeysetScrollPosition positionOf(int x) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("username", username(x));
+        keys.put("id", ID_OFFSET + x);
+        return ScrollPosition.forward(keys);
+    }
+
+    private static String username(int x) {
+        return "seek" + String.format("%06d", x);
+    }
+}
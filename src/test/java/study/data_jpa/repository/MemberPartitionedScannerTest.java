@@ -0,0 +1,69 @@
+package study.data_jpa.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+
+// 스캐너는 구간마다 별도 스레드와 커넥션(StatelessSession)으로 읽는다. 테스트 트랜잭션에서 저장한 회원은 그 커넥션에서 보이지 않는다.
+// 그래서 회원은 커밋해서 만들고 @AfterEach에서 지운다.
+@SpringBootTest
+class MemberPartitionedScannerTest {
+    @Autowired MemberPartitionedScanner scanner;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+
+    List<Long> ids = new ArrayList<>();
+    List<Long> teamIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(ids);
+        teamRepository.deleteAllByIdInBatch(teamIds);
+    }
+
+    @Test
+    public void partitions() throws Exception {
+        //given
+        ids.add(memberRepository.save(new Member("scanPartition", 10)).getId());
+
+        //when
+        List<MemberPartitionedScanner.IdRange> ranges = scanner.partitions(4);
+
+        //then - 빈틈 없이 이어지는 구간
+        assertThat(ranges).hasSizeBetween(1, 4);
+        for (int i = 1; i < ranges.size(); i++) {
+            assertThat(ranges.get(i).from()).isEqualTo(ranges.get(i - 1).to() + 1);
+        }
+    }
+
+    @Test
+    public void forEachAndMap() throws Exception {
+        //given
+        Team team = teamRepository.save(new Team("scanTeam"));
+        teamIds.add(team.getId());
+        for (int i = 0; i < 10; i++) {
+            ids.add(memberRepository.save(new Member("scan" + i, 10, team)).getId());
+        }
+
+        //when
+        Map<Long, MemberDto> scanned = new ConcurrentHashMap<>();
+        long count = scanner.forEach(4, dto -> scanned.put(dto.getId(), dto));
+        List<Long> mappedIds = scanner.map(4, MemberDto::getId);
+
+        //then
+        assertThat(count).isEqualTo(memberRepository.count());
+        assertThat(scanned).containsKeys(ids.toArray(Long[]::new));
+        assertThat(scanned.get(ids.get(0)).getTeamName()).isEqualTo("scanTeam");
+        assertThat(mappedIds).isSorted().containsAll(ids);
+    }
+}
@@ -4,25 +4,37 @@ import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 import jakarta.persistence.EntityManager;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Window;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.config.RequestCachedAuditorAware;
+import study.data_jpa.dto.MemberCursor;
 import study.data_jpa.dto.MemberDto;
 import study.data_jpa.entity.Member;
 import study.data_jpa.entity.Team;
+import study.data_jpa.support.QueryCounter;
 
 @SpringBootTest
 @Transactional
@@ -37,6 +49,11 @@ class MemberRepositoryTest {
     @Autowired
     EntityManager em;
 
+    @AfterEach
+    void stopQueryCounter() {
+        QueryCounter.stop();
+    }
+
     @Test
     public void testMember() {
         System.out.println("memberRepository = " + memberRepository.getClass());
@@ -182,6 +199,30 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void findByNamesLargeList() throws Exception {
+        //given
+        memberRepository.save(new Member("inList0", 10));
+        memberRepository.save(new Member("inList1500", 10));
+        memberRepository.save(new Member("inList2499", 10));
+        em.flush();
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            names.add("inList" + i);
+        }
+        names.addAll(names.subList(0, 100)); // 중복은 제거된다.
+
+        //when
+        QueryCounter.start();
+        List<Member> byNames = memberRepository.findByNames(names);
+
+        //then - 서로 다른 2,500개를 512개씩 5번에 나눠 조회
+        assertThat(QueryCounter.current().getSelectCount()).isEqualTo(5);
+        assertThat(byNames).extracting(Member::getUsername)
+                .containsExactlyInAnyOrder("inList0", "inList1500", "inList2499");
+    }
+
     @Test
     public void returnTypeTest() throws Exception {
         //given
@@ -253,8 +294,10 @@ class MemberRepositoryTest {
         int age = 10, offset = 0, limit = 3;
 
         PageRequest pageRequest = PageRequest.of(offset, limit, Sort.by(Direction.DESC, "username"));
+        em.flush();
 
         //when
+        QueryCounter.start();
         Page<Member> page = memberRepository.findByAge(age, pageRequest);
 
         // Entity -> DTO로 반환
@@ -270,6 +313,8 @@ class MemberRepositoryTest {
             System.out.println("member = " + member);
         }
 
+        // 컨텐츠 조회 1번 + count 1번
+        QueryCounter.assertMaxQueries(2);
         assertThat(totalElements).isEqualTo(5);
         assertThat(content.size()).isEqualTo(3);
         assertThat(page.getNumber()).isEqualTo(0);
@@ -291,7 +336,10 @@ class MemberRepositoryTest {
 
         PageRequest pageRequest = PageRequest.of(offset, limit, Sort.by(Direction.DESC, "username"));
 
+        em.flush();
+
         //when
+        QueryCounter.start();
         Slice<Member> slice = memberRepository.findSliceByAge(age, pageRequest);
         List<Member> content = slice.getContent();
 
@@ -299,11 +347,50 @@ class MemberRepositoryTest {
         for (Member member : content) {
             System.out.println("member = " + member);
         }
+        // limit + 1개를 조회해서 다음 페이지 여부를 판단하므로 count 쿼리가 없다.
+        QueryCounter.assertMaxQueries(1);
         assertThat(slice.getNumber()).isEqualTo(0);
         assertThat(slice.hasNext()).isTrue();
         assertThat(slice.isFirst()).isTrue();
     }
 
+    @Test
+    public void keysetPaging() throws Exception {
+        //given
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member("keyset" + i, 10));
+        }
+        memberRepository.save(new Member("keyset0", 20)); // username이 같으면 id로 순서를 정한다.
+        memberRepository.save(new Member(null, 30)); // username이 없는 회원은 조회하지 않는다.
+        long total = em.createQuery("select count(m) from Member m where m.username is not null", Long.class)
+                .getSingleResult();
+
+        //when
+        // cursor 문자열로 변환했다가 다시 읽어도 이어서 조회되는지 확인한다.
+        List<Member> scanned = new ArrayList<>();
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        Window<Member> window;
+        do {
+            window = memberRepository.findMembersAfter(position, 3);
+            scanned.addAll(window.getContent());
+            if (window.hasNext()) {
+                String cursor = MemberCursor.encode((KeysetScrollPosition) window.positionAt(window.size() - 1));
+                position = MemberCursor.decode(cursor);
+            }
+        } while (window.hasNext());
+
+        //then
+        // offset이 없기 때문에 몇 번째 페이지든 같은 형태의 쿼리(인덱스 탐색 + limit 4)가 실행된다.
+        // (페이지 위치와 상관없이 읽는 행 수가 같은지는 MemberKeysetPagingTest 참고)
+        assertThat(scanned).hasSize((int) total);
+        for (int i = 1; i < scanned.size(); i++) {
+            Member prev = scanned.get(i - 1);
+            Member cur = scanned.get(i);
+            int compare = prev.getUsername().compareTo(cur.getUsername());
+            assertThat(compare < 0 || (compare == 0 && prev.getId() < cur.getId())).isTrue();
+        }
+    }
+
     @Test
     public void bulkUpdatetest() throws Exception {
         //given
@@ -323,6 +410,24 @@ class MemberRepositoryTest {
         assertThat(resultCnt).isEqualTo(3);
     }
 
+    @Test
+    public void bulkUpdateSetsAuditColumns() throws Exception {
+        //given
+        Member member = memberRepository.save(new Member("bulkAudit", 7000));
+        memberRepository.flush();
+        LocalDateTime savedAt = member.getLastModifiedDate();
+
+        //when
+        Thread.sleep(10);
+        memberRepository.bulkUpdate(7000);
+
+        //then - 엔티티를 하나씩 다시 저장하지 않아도 감사 컬럼이 같은 문장에서 수정된다.
+        Member updated = memberRepository.findById(member.getId()).get();
+        assertThat(updated.getAge()).isEqualTo(7001);
+        assertThat(updated.getLastModifiedDate()).isAfter(savedAt);
+        assertThat(updated.getLastModifiedBy()).isEqualTo(RequestCachedAuditorAware.SYSTEM_AUDITOR);
+    }
+
     @Test
     public void findMemberLazy() throws Exception {
         //given
@@ -340,6 +445,7 @@ class MemberRepositoryTest {
 //        List<Member> members = memberRepository.findAll();
 
         // JPQL + EntityGraph
+        QueryCounter.start();
         List<Member> members = memberRepository.findMemberEntityGraph();
 
         //JPQL + NamedEntityGraph
@@ -351,9 +457,87 @@ class MemberRepositoryTest {
         //then
         for (Member member : members) {
             System.out.println("member.getUsername() = " + member.getUsername());
-            // N+1 문제 발생.
+            // 지연 로딩이었다면 N+1 문제 발생.
             System.out.println("member.getTeam().getName() = " + member.getTeam().getName());
         }
+        QueryCounter.assertMaxQueries(1);
+    }
+
+    @Test
+    public void entityGraphQueryCount() throws Exception {
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        teamRepository.save(teamA);
+        teamRepository.save(teamB);
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20, teamB));
+        em.flush();
+        em.clear();
+
+        //when
+        QueryCounter.start();
+        List<Member> members = memberRepository.findMemberEntityGraph();
+        for (Member member : members) {
+            member.getTeam().getName();
+        }
+
+        //then
+        // 팀을 join으로 함께 가져오므로 팀 수와 상관없이 쿼리 1번
+        QueryCounter.assertMaxQueries(1);
+    }
+
+    @Test
+    public void batchFetchTeam() throws Exception {
+        //given
+        // 회원 1,000명, 팀 100개
+        saveMembersAcrossTeams(777, 100, 10);
+        em.flush();
+        em.clear();
+
+        //when
+        QueryCounter.start();
+        List<Member> members = memberRepository.findSliceByAge(777, PageRequest.of(0, 1000)).getContent();
+        for (Member member : members) {
+            member.getTeam().getName();
+        }
+
+        //then
+        // 회원 조회 1번 + 팀 프록시 100개를 in 쿼리 1번으로 초기화 (batch size 미적용 시 1 + 100번)
+        assertThat(members).hasSize(1000);
+        QueryCounter.assertMaxQueries(2);
+    }
+
+    @Test
+    public void subselectFetchMembers() throws Exception {
+        //given
+        List<Long> teamIds = saveMembersAcrossTeams(778, 100, 10);
+        em.flush();
+        em.clear();
+
+        //when
+        QueryCounter.start();
+        List<Team> teams = teamRepository.findAllById(teamIds);
+        int memberCount = 0;
+        for (Team team : teams) {
+            memberCount += team.getMembers().size();
+        }
+
+        //then
+        // 팀 조회 1번 + 모든 팀의 members를 서브쿼리 1번으로 초기화
+        assertThat(memberCount).isEqualTo(1000);
+        QueryCounter.assertMaxQueries(2);
+    }
+
+    private List<Long> saveMembersAcrossTeams(int age, int teamCount, int membersPerTeam) {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < teamCount; i++) {
+            teams.add(teamRepository.save(new Team("batchTeam" + i)));
+        }
+        for (int i = 0; i < teamCount * membersPerTeam; i++) {
+            memberRepository.save(new Member("batchMember" + i, age, teams.get(i % teamCount)));
+        }
+        return teams.stream().map(Team::getId).toList();
     }
 
     @Test
@@ -393,6 +577,30 @@ class MemberRepositoryTest {
         assertThat(result.size()).isEqualTo(2);
     }
 
+    @Test
+    public void streamMemberDto() throws Exception {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("stream1", 10, teamA));
+        em.persist(new Member("stream2", 20));
+        em.flush();
+        em.clear();
+
+        //when
+        QueryCounter.start();
+        long streamed;
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto()) {
+            streamed = members.count();
+        }
+
+        //then
+        // DTO로 바로 조회하므로 팀 이름을 위한 추가 쿼리가 없다.
+        QueryCounter.assertMaxQueries(1);
+        // left join이므로 팀이 없는 회원도 포함된다.
+        assertThat(streamed).isEqualTo(memberRepository.count());
+    }
+
     @Test
     public void queryByExample() throws Exception{
         //given
@@ -503,6 +711,45 @@ class MemberRepositoryTest {
         assertThat(m1.get(0).getUsername()).isEqualTo("m1");
     }
 
+    @Test
+    public void precompiledProjectionTest() throws Exception{
+        //given
+        em.persist(new Member("m1", 10));
+        em.flush();
+        em.clear();
+        //when
+        QueryCounter.start();
+        List<UsernameOnlyDto> dto = memberRepository.findDynamicProjectByUsername("m1", UsernameOnlyDto.class);
+        List<UserNameOnly> open = memberRepository.findDynamicProjectByUsername("m1", UserNameOnly.class); // 단순 SpEL
+
+        //then
+        assertThat(dto.get(0).getUsername()).isEqualTo("m1");
+        // 동적 프록시가 아니라 미리 생성된 구현 클래스, SpEL이 참조한 username, age만 조회한다.
+        assertThat(Proxy.isProxyClass(open.get(0).getClass())).isFalse();
+        assertThat(open.get(0).getUsernameAndAge()).isEqualTo("m1 10");
+        assertThat(QueryCounter.current().getRepeatedStatements(1).keySet())
+                .allSatisfy(sql -> assertThat(sql).doesNotContain("created_date", "fk_team_id"));
+    }
+
+    @Test
+    public void unsupportedSpelProjectionFallsBackToProxy() throws Exception{
+        //given
+        em.persist(new Member("m1", 10));
+        em.flush();
+        em.clear();
+        //when
+        List<UpperUsername> result = memberRepository.findDynamicProjectByUsername("m1", UpperUsername.class);
+        //then
+        assertThat(Proxy.isProxyClass(result.get(0).getClass())).isTrue();
+        assertThat(result.get(0).getUpperUsername()).isEqualTo("M1");
+    }
+
+    // 메서드 호출이 있는 SpEL은 컴파일하지 않는다.
+    public interface UpperUsername {
+        @Value("#{target.username.toUpperCase()}")
+        String getUpperUsername();
+    }
+
     @Test
     public void nestedClosedProjectionTest() throws Exception{
         //given
@@ -525,6 +772,30 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void nestedClosedDynamicProjectionTest() throws Exception{
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("nested1", 10, teamA));
+        em.persist(new Member("nested2", 10));
+        em.flush();
+        em.clear();
+        //when
+        // select m.username, t.team_id, t.name from member m left join team t ...
+        QueryCounter.start();
+        List<NestedClosedProjection> withTeam = memberRepository.findDynamicProjectByUsername("nested1", NestedClosedProjection.class);
+        List<NestedClosedProjection> withoutTeam = memberRepository.findDynamicProjectByUsername("nested2", NestedClosedProjection.class);
+        //then
+        QueryCounter.assertMaxQueries(2);
+        assertThat(QueryCounter.current().getRepeatedStatements(1).keySet())
+                .allSatisfy(sql -> assertThat(sql).contains("left join").doesNotContain("created_date", "age"));
+        assertThat(Proxy.isProxyClass(withTeam.get(0).getClass())).isFalse();
+        assertThat(withTeam.get(0).getTeam().getName()).isEqualTo("teamA");
+        assertThat(withoutTeam.get(0).getUsername()).isEqualTo("nested2");
+        assertThat(withoutTeam.get(0).getTeam()).isNull();
+    }
+
     @Test
     public void nativeQueryTest() throws Exception{
         //given
@@ -567,5 +838,27 @@ class MemberRepositoryTest {
         assertThat(byNativeProjection.getNumberOfElements()).isEqualTo(2);
     }
 
+    @Test
+    public void cachedUsernameLookup() {
+        //given
+        memberRepository.save(new Member("cachedUser", 10));
+        memberRepository.save(new Member("cachedUser", 20));
+        em.flush();
+        assertThat(memberRepository.findByUsername("cachedUser")).hasSize(2);
 
-}
\ No newline at end of file
+        //when - 인덱스와 영속성 컨텍스트에서 모두 찾으므로 쿼리가 실행되지 않는다.
+        QueryCounter.start();
+        List<Member> cached = memberRepository.findByUsername("cachedUser");
+        QueryCounter.assertMaxQueries(0);
+        QueryCounter.stop();
+
+        // insert 이벤트로 해당 username 항목이 지워진다.
+        memberRepository.save(new Member("cachedUser", 30));
+        em.flush();
+
+        //then
+        assertThat(cached).extracting(Member::getAge).containsExactly(10, 20);
+        assertThat(memberRepository.findByUsername("cachedUser")).extracting(Member::getAge)
+                .containsExactly(10, 20, 30);
+    }
+}
@@ -0,0 +1,69 @@
+package study.data_jpa.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.support.QueryCounter;
+
+// username 인덱스는 기본으로 꺼져 있으므로 켜고 검증한다.
+// 컨트롤러처럼 트랜잭션 밖에서 호출하는 경우를 보기 위해 테스트 트랜잭션을 쓰지 않고, 만든 회원은 @AfterEach에서 지운다.
+@SpringBootTest(properties = "member.username-index.enabled=true")
+class MemberUsernameIndexTest {
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    List<Long> memberIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        QueryCounter.stop();
+        memberRepository.deleteAllByIdInBatch(memberIds);
+    }
+
+    @Test
+    public void findByUsernameOutsideTransaction() throws Exception {
+        //given
+        memberIds.add(memberRepository.save(new Member("indexedOutside", 10)).getId());
+        memberRepository.findByUsername("indexedOutside"); // 인덱스 적재
+
+        //when - 인덱스와 Member 2차 캐시에서 꺼낸다.
+        QueryCounter.start();
+        List<Member> members = memberRepository.findListByUsername("indexedOutside");
+        Member member = memberRepository.findMemberByUsername("indexedOutside");
+        QueryCounter.assertMaxQueries(0);
+
+        //then
+        assertThat(members).extracting(Member::getId).containsExactly(memberIds.get(0));
+        assertThat(member.getId()).isEqualTo(memberIds.get(0));
+        assertThat(memberRepository.findOptionalByUsername("indexedOutside")).isPresent();
+    }
+
+    @Test
+    public void findByNamesFromUsernameIndex() throws Exception {
+        //given
+        memberIds.add(memberRepository.save(new Member("indexedA", 10)).getId());
+        memberIds.add(memberRepository.save(new Member("indexedB", 20)).getId());
+        List<String> names = List.of("indexedA", "indexedB", "indexedNone");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(memberRepository.findByNames(names)).hasSize(2);
+
+            //when - 없는 username까지 인덱스에 기록되어 있고, 회원은 영속성 컨텍스트에 있다.
+            QueryCounter.start();
+            List<Member> byNames = memberRepository.findByNames(names);
+            QueryCounter.assertMaxQueries(0);
+
+            //then
+            assertThat(byNames).extracting(Member::getUsername).containsExactly("indexedA", "indexedB");
+        });
+        assertThat(memberRepository.findByNames(names)).hasSize(2); // 트랜잭션 밖
+    }
+}
@@ -0,0 +1,96 @@
+package study.data_jpa.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+
+// retryExecutor는 이미 열린 트랜잭션 안에서 호출하면 IllegalStateException을 던지므로 테스트 트랜잭션을 쓸 수 없다.
+// 경쟁시킨 회원은 @AfterEach에서 지운다. (처리량 비교는 jmh의 ContendedUpdateBenchmark)
+// 한 행을 8개 스레드가 경쟁하므로 테스트에서는 재시도 횟수를 넉넉히 준다.
+@SpringBootTest(properties = "optimistic-lock.retry.max-attempts=100")
+class OptimisticLockRetryExecutorTest {
+    static final int THREADS = 8;
+    static final int INCREMENTS_PER_THREAD = 25;
+
+    @Autowired OptimisticLockRetryExecutor retryExecutor;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    List<Long> memberIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(memberIds);
+    }
+
+    @Test
+    public void noLostUpdates() throws Exception {
+        //given
+        Long id = memberRepository.save(new Member("optimistic", 0)).getId();
+        memberIds.add(id);
+
+        //when
+        concurrently(() -> retryExecutor.run("member.age", () -> {
+            Member member = memberRepository.findById(id).get();
+            member.setAge(member.getAge() + 1);
+        }));
+
+        //then
+        assertThat(memberRepository.findById(id).get().getAge()).isEqualTo(THREADS * INCREMENTS_PER_THREAD);
+    }
+
+    @Test
+    public void pessimisticWriteNoLostUpdates() throws Exception {
+        //given
+        Long id = memberRepository.save(new Member("pessimistic", 0)).getId();
+        memberIds.add(id);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        //when
+        concurrently(() -> tx.executeWithoutResult(status -> {
+            Member member = memberRepository.findWithLockById(id).get();
+            member.setAge(member.getAge() + 1);
+        }));
+
+        //then
+        assertThat(memberRepository.findById(id).get().getAge()).isEqualTo(THREADS * INCREMENTS_PER_THREAD);
+    }
+
+    @Test
+    public void rejectsOuterTransaction() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        assertThatThrownBy(() -> tx.executeWithoutResult(status -> retryExecutor.run("nested", () -> {
+        }))).isInstanceOf(IllegalStateException.class);
+    }
+
+    private void concurrently(Runnable increment) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < INCREMENTS_PER_THREAD; j++) {
+                        increment.run();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package study.data_jpa.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+
+// 2차 캐시는 트랜잭션이 커밋된 뒤에야 채워지므로, 테스트 트랜잭션 하나로 묶으면 캐시 적중을 관찰할 수 없다.
+// 리포지토리 호출마다 커밋하고, 만든 데이터는 @AfterEach에서 지운다.
+// findByUsername은 username 인덱스가 켜져 있으면 쿼리 캐시 대신 인덱스를 거치므로, 쿼리 캐시를 보려고 인덱스를 끈다.
+@SpringBootTest(properties = "member.username-index.enabled=false")
+class SecondLevelCacheTest {
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired EntityManagerFactory emf;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    Statistics statistics;
+    List<Long> memberIds = new ArrayList<>();
+    List<Long> teamIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(memberIds);
+        teamRepository.deleteAllByIdInBatch(teamIds);
+    }
+
+    @Test
+    public void teamCache() throws Exception {
+        //given
+        Team team = teamRepository.save(new Team("cachedTeam"));
+        teamIds.add(team.getId());
+        long hits = statistics.getDomainDataRegionStatistics(Team.class.getName()).getHitCount();
+
+        //when
+        Team findTeam = teamRepository.findById(team.getId()).get();
+
+        //then
+        assertThat(findTeam.getName()).isEqualTo("cachedTeam");
+        assertThat(statistics.getDomainDataRegionStatistics(Team.class.getName()).getHitCount()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void queryCache() throws Exception {
+        //given
+        memberIds.add(memberRepository.save(new Member("queryCache", 10)).getId());
+        memberRepository.findByUsername("queryCache");
+        long hits = statistics.getQueryCacheHitCount();
+
+        //when
+        memberRepository.findByUsername("queryCache");
+
+        //then
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void bulkUpdateEvictsCache() throws Exception {
+        //given
+        Member member = memberRepository.save(new Member("bulkCache", 200));
+        memberIds.add(member.getId());
+        memberRepository.findById(member.getId()); // 캐시 적중
+
+        //when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> memberRepository.bulkUpdate(200));
+
+        //then
+        // 벌크 연산으로 Member 리전이 비워졌으므로 DB에서 다시 읽어 변경된 나이가 보인다.
+        assertThat(memberRepository.findById(member.getId()).get().getAge()).isEqualTo(201);
+        assertThat(memberRepository.findByUsername("bulkCache").get(0).getAge()).isEqualTo(201);
+    }
+}
@@ -0,0 +1,79 @@
+package study.data_jpa.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.data_jpa.entity.Item;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+
+// 2차 캐시 제거와 팀 회원 수 반영의 결과를 MemberRepository로 다시 읽어 확인한다. 제거는 커밋 후에 일어나므로 쓰기마다 실제로 커밋한다.
+// 만든 회원, 팀, 상품은 @AfterEach에서 지운다.
+@SpringBootTest
+class StatelessRepositoryTest {
+    @Autowired MemberStatelessRepository memberStatelessRepository;
+    @Autowired ItemStatelessRepository itemStatelessRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired ItemRepository itemRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    List<Long> memberIds = new ArrayList<>();
+    List<Long> teamIds = new ArrayList<>();
+    List<String> itemIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(memberIds);
+        teamRepository.deleteAllByIdInBatch(teamIds);
+        itemRepository.deleteAllByIdInBatch(itemIds);
+    }
+
+    @Test
+    public void insertTransformDelete() throws Exception {
+        //given
+        Team team = teamRepository.save(new Team("statelessTeam"));
+        teamIds.add(team.getId());
+        List<Member> members = IntStream.range(0, 3).mapToObj(i -> new Member("stateless" + i, 10, team)).toList();
+
+        //when
+        long inserted = memberStatelessRepository.insertAll(members.stream());
+        members.forEach(member -> memberIds.add(member.getId()));
+        Long from = members.get(0).getId();
+        Long to = members.get(2).getId();
+        long transformed = memberStatelessRepository.transform(from, to, member -> member.setAge(member.getAge() + 1));
+        memberStatelessRepository.delete(memberStatelessRepository.findById(from).get());
+
+        //then
+        assertThat(inserted).isEqualTo(3);
+        assertThat(transformed).isEqualTo(3);
+        assertThat(memberRepository.findById(from)).isEmpty();
+
+        Member updated = memberRepository.findById(to).get();
+        assertThat(updated.getAge()).isEqualTo(11);
+        assertThat(updated.getVersion()).isEqualTo(1L);
+        assertThat(updated.getCreatedDate()).isNotNull(); // 엔티티 리스너 대신 직접 채운 감사 필드
+        assertThat(updated.getLastModifiedDate()).isAfterOrEqualTo(updated.getCreatedDate());
+        assertThat(jdbcTemplate.queryForObject("select member_count from team where team_id = ?", Long.class,
+                team.getId())).isEqualTo(2);
+    }
+
+    @Test
+    public void insertItem() throws Exception {
+        //when
+        itemStatelessRepository.insert(new Item("stateless-item"));
+        itemIds.add("stateless-item");
+
+        //then
+        Item item = itemStatelessRepository.findById("stateless-item").get();
+        assertThat(item.getVersion()).isEqualTo(0L);
+        assertThat(item.getCreatedDate()).isNotNull();
+    }
+}
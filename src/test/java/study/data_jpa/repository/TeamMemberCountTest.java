@@ -0,0 +1,143 @@
+package study.data_jpa.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+
+// member_count는 TeamMemberCountListener가 트랜잭션 완료 직전에 반영하므로, 테스트 트랜잭션을 롤백하면 검증할 값이 남지 않는다.
+// 커밋된 DB 값을 JdbcTemplate으로 확인하고, 만든 팀과 회원은 @AfterEach에서 지운다.
+@SpringBootTest
+class TeamMemberCountTest {
+    @Autowired TeamRepository teamRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamMemberCountReconciler reconciler;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    List<Long> memberIds = new ArrayList<>();
+    List<Long> teamIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(memberIds);
+        teamRepository.deleteAllByIdInBatch(teamIds);
+    }
+
+    @Test
+    public void maintainedOnInsertMoveAndDelete() throws Exception {
+        //given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Team teamA = team("countA");
+        Team teamB = team("countB");
+        memberIds.addAll(tx.execute(status -> List.of(
+                memberRepository.save(new Member("count1", 10, teamA)).getId(),
+                memberRepository.save(new Member("count2", 10, teamA)).getId(),
+                memberRepository.save(new Member("count3", 10, teamA)).getId())));
+        assertThat(memberCount(teamA)).isEqualTo(3);
+
+        //when
+        tx.executeWithoutResult(status -> {
+            Member member = memberRepository.findById(memberIds.get(0)).get();
+            member.changeTeam(teamRepository.findById(teamB.getId()).get());
+            assertThat(member.getTeam().getMemberCount()).isEqualTo(1); // 메모리 값도 함께 맞춰진다.
+        });
+        memberRepository.deleteById(memberIds.get(1));
+
+        //then
+        assertThat(memberCount(teamA)).isEqualTo(1);
+        assertThat(memberCount(teamB)).isEqualTo(1);
+    }
+
+    @Test
+    public void reconcileAfterBulkDelete() throws Exception {
+        //given
+        Team team = team("countBulk");
+        Long memberId = member(new Member("countBulk", 10, team)).getId();
+        member(new Member("countBulk2", 10, team));
+        assertThat(memberCount(team)).isEqualTo(2);
+
+        //when - 이벤트 없이 삭제되지만 TeamMemberCountBulkInterceptor가 reconcile을 실행한다.
+        memberRepository.deleteAllByIdInBatch(List.of(memberId));
+
+        //then
+        assertThat(memberCount(team)).isEqualTo(1);
+    }
+
+    @Test
+    public void bulkDeleteReconcilesOnlyAffectedTeams() throws Exception {
+        //given
+        Team team = team("countAffected");
+        Team other = team("countOther");
+        Long memberId = member(new Member("countAffected", 10, team)).getId();
+        member(new Member("countOther", 10, other));
+        jdbcTemplate.update("update team set member_count = 100 where team_id = ?", other.getId());
+
+        //when - 지운 회원의 팀만 다시 맞춘다.
+        memberRepository.deleteAllByIdInBatch(List.of(memberId));
+
+        //then
+        assertThat(memberCount(team)).isEqualTo(0);
+        assertThat(memberCount(other)).isEqualTo(100);
+    }
+
+    @Test
+    public void reconcileFixesDrift() throws Exception {
+        //given
+        Team team = team("countDrift");
+        member(new Member("countDrift", 10, team));
+        jdbcTemplate.update("update team set member_count = 100 where team_id = ?", team.getId());
+
+        //when
+        int fixed = reconciler.reconcile();
+
+        //then
+        assertThat(fixed).isGreaterThanOrEqualTo(1);
+        assertThat(memberCount(team)).isEqualTo(1);
+    }
+
+    @Test
+    public void orderByMemberCount() throws Exception {
+        //given
+        Team small = team("countSmall");
+        Team large = team("countLarge");
+        member(new Member("countSmall", 10, small));
+        for (int i = 0; i < 3; i++) {
+            member(new Member("countLarge" + i, 10, large));
+        }
+
+        //when
+        List<Team> teams = teamRepository.findByOrderByMemberCountDescIdAsc(PageRequest.of(0, 1000));
+
+        //then
+        assertThat(teams).extracting(Team::getMemberCount).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(teams.stream().map(Team::getId).toList()).containsSubsequence(large.getId(), small.getId());
+    }
+
+    private Team team(String name) {
+        Team team = teamRepository.save(new Team(name));
+        teamIds.add(team.getId());
+        return team;
+    }
+
+    private Member member(Member member) {
+        memberRepository.save(member);
+        memberIds.add(member.getId());
+        return member;
+    }
+
+    // 2차 캐시를 거치지 않고 DB 값을 읽는다.
+    private long memberCount(Team team) {
+        return jdbcTemplate.queryForObject("select member_count from team where team_id = ?", Long.class, team.getId());
+    }
+}